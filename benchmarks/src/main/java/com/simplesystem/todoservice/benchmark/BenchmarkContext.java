@@ -0,0 +1,98 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.simplesystem.todoservice.TodoserviceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Boots the service against its own in-memory H2 database, with or without a web server,
+// or against a file-backed one in the durable profile
+final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static BenchmarkContext start(String database, Map<String, Object> overrides) {
+        return start(database, overrides, WebApplicationType.NONE);
+    }
+
+    static BenchmarkContext start(String database) {
+        return start(database, Map.of());
+    }
+
+    // Same, plus an embedded web server on a random port
+    static BenchmarkContext startServer(String database, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.put("server.port", "0");
+        return start(database, properties, WebApplicationType.SERVLET);
+    }
+
+    // Durable profile with its database files under dataDir
+    static BenchmarkContext startDurable(Path dataDir, Map<String, Object> overrides) {
+        return start(null, durable(dataDir, overrides), WebApplicationType.NONE);
+    }
+
+    // Same, plus an embedded web server on a random port
+    static BenchmarkContext startDurableServer(Path dataDir, Map<String, Object> overrides) {
+        Map<String, Object> properties = durable(dataDir, overrides);
+        properties.put("server.port", "0");
+        return start(null, properties, WebApplicationType.SERVLET);
+    }
+
+    private static Map<String, Object> durable(Path dataDir, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.put("spring.profiles.active", "durable");
+        properties.put("todo.data-dir", dataDir.toAbsolutePath());
+        return properties;
+    }
+
+    private static BenchmarkContext start(String database, Map<String, Object> overrides, WebApplicationType type) {
+        Map<String, Object> properties = new HashMap<>();
+        if (database != null) {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:" + database);
+        }
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        // benchmarks drive past-due handling explicitly
+        properties.put("todo.pastdue.timer.enabled", "false");
+        properties.putAll(overrides);
+
+        return new BenchmarkContext(new SpringApplicationBuilder(TodoserviceApplication.class)
+                .web(type)
+                .run(asArguments(properties)));
+    }
+
+    // Command-line arguments take precedence over application.properties, default properties do not
+    private static String[] asArguments(Map<String, Object> properties) {
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    JdbcTemplate jdbc() {
+        return bean(JdbcTemplate.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.simplesystem.todoservice.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Latencies of successful requests and the error count of one or more load clients
+final class LoadSamples {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    long errors;
+
+    void add(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    void addAll(LoadSamples other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.latencies[i]);
+        }
+        errors += other.errors;
+    }
+
+    Result summarize(Duration duration) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Result(count / (double) duration.toSeconds(),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999), errors);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    record Result(double throughput, double p50, double p99, double p999, long errors) {
+
+        String format(String mode) {
+            return String.format("%-12s %10.0f req/s   p50 %8.2f ms   p99 %8.2f ms   p99.9 %8.2f ms   errors %d",
+                    mode, throughput, p50, p99, p999, errors);
+        }
+    }
+}
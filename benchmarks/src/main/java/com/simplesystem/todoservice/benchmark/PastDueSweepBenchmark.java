@@ -0,0 +1,45 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// One full reconciliation sweep over a backlog of overdue NOT_DONE items
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PastDueSweepBenchmark {
+
+    @Param({"10000", "100000"})
+    int backlog;
+
+    private BenchmarkContext context;
+    private TodoPastDueScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("sweep-bench-" + backlog);
+        TodoTableSeeder.seedOverdue(context.jdbc(), backlog);
+        scheduler = context.bean(TodoPastDueScheduler.class);
+    }
+
+    // Put the whole backlog back before each measured sweep
+    @Setup(Level.Iteration)
+    public void resetBacklog() {
+        context.jdbc().update("update todo_items set status = 'NOT_DONE'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int sweep() {
+        return scheduler.markPastDueItems();
+    }
+}
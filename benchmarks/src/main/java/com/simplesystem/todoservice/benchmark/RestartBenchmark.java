@@ -0,0 +1,91 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.simplesystem.todoservice.scheduler.TodoDueTimeTracker;
+import com.simplesystem.todoservice.search.TodoSearchIndex;
+import com.simplesystem.todoservice.service.TodoItemService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Warm restart of the durable profile: seeds a file-backed database once, then restarts the
+// service on it several times and reports the time until the context is ready, which includes
+// schema validation and rebuilding the in-memory due-time heap and search index.
+// Fails (exit code 1) when the slowest restart exceeds the budget.
+// Tunable via -Drows, -Drestarts, -Drestart.budget.seconds.
+public final class RestartBenchmark {
+
+    private static final int ROWS = Integer.getInteger("rows", 1_000_000);
+    private static final int RESTARTS = Integer.getInteger("restarts", 3);
+    private static final Duration BUDGET = Duration.ofSeconds(Long.getLong("restart.budget.seconds", 15));
+
+    // run as a regular service, with the due-time timer seeding its heap on startup
+    private static final Map<String, Object> SERVICE = Map.of("todo.pastdue.timer.enabled", "true");
+
+    private RestartBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dataDir = Files.createTempDirectory("todo-restart");
+        boolean withinBudget;
+        try {
+            withinBudget = run(dataDir);
+        } finally {
+            delete(dataDir);
+        }
+        if (!withinBudget) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(Path dataDir) throws IOException {
+        long seedStart = System.nanoTime();
+        try (BenchmarkContext context = BenchmarkContext.startDurable(dataDir, Map.of())) {
+            TodoTableSeeder.seedMixed(context.jdbc(), ROWS);
+        }
+        System.out.printf("seeded %d rows in %d ms, %d MB on disk%n",
+                ROWS, elapsedMillis(seedStart), sizeOf(dataDir) / (1024 * 1024));
+
+        long slowest = 0;
+        for (int i = 1; i <= RESTARTS; i++) {
+            long start = System.nanoTime();
+            try (BenchmarkContext context = BenchmarkContext.startDurable(dataDir, SERVICE)) {
+                long ready = elapsedMillis(start);
+                long queryStart = System.nanoTime();
+                context.bean(TodoItemService.class).getPage(null, false, null, null, null, 50);
+                // the search index builds in the background; until then searches use the database
+                System.out.printf("restart %d: ready in %d ms, first page (cold) in %d ms, %d open items tracked, "
+                                + "search index %s%n",
+                        i, ready, elapsedMillis(queryStart),
+                        context.bean(TodoDueTimeTracker.class).trackedCount(),
+                        context.bean(TodoSearchIndex.class).isAvailable() ? "ready" : "not ready");
+                slowest = Math.max(slowest, ready);
+            }
+        }
+
+        boolean withinBudget = slowest <= BUDGET.toMillis();
+        System.out.printf("slowest restart %d ms, budget %d ms: %s%n",
+                slowest, BUDGET.toMillis(), withinBudget ? "OK" : "EXCEEDED");
+        return withinBudget;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping and Jackson serialization of list responses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000"})
+    int listSize;
+
+    private ObjectMapper mapper;
+    private List<TodoItem> entities;
+    private List<TodoResponse> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Spring Boot's web ObjectMapper: ISO timestamps (plain Spring leaves WRITE_DATES_AS_TIMESTAMPS on)
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            TodoItem item = TodoItem.builder()
+                    .id((long) i)
+                    .description("Benchmark task number " + i)
+                    .status(i % 3 == 0 ? TodoStatus.DONE : TodoStatus.NOT_DONE)
+                    .creationTime(now.minusDays(1))
+                    .dueTime(now.plusMinutes(i))
+                    .completionTime(i % 3 == 0 ? now : null)
+                    .build();
+            entities.add(item);
+        }
+        responses = toResponses();
+    }
+
+    @Benchmark
+    public List<TodoResponse> fromEntity() {
+        return toResponses();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] fromEntityAndSerialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toResponses());
+    }
+
+    private List<TodoResponse> toResponses() {
+        return entities.stream()
+                .map(TodoResponse::fromEntity)
+                .toList();
+    }
+}
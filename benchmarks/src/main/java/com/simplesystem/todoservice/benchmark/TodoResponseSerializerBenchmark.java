@@ -0,0 +1,74 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TodoResponseSerializer vs. the reflective bean serializer, streaming a list into a discarding
+// stream with one operation per item: run with -prof gc, gc.alloc.rate.norm is bytes per item
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoResponseSerializerBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    private ObjectMapper mapper;
+    private ObjectMapper beanMapper;
+    private List<TodoResponse> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Spring Boot's JSON settings: ISO timestamp strings
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        beanMapper = mapper.copy().addMixIn(TodoResponse.class, BeanSerialized.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        responses = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            boolean done = i % 3 == 0;
+            responses.add(new TodoResponse(
+                    (long) i,
+                    "Benchmark task number " + i,
+                    done ? TodoStatus.DONE : TodoStatus.NOT_DONE,
+                    now.minusDays(1),
+                    now.plusMinutes(i),
+                    done ? now : null,
+                    i % 5));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void streamingSerializer() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void beanSerializer() throws IOException {
+        beanMapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    // Restores the default bean serializer over the @JsonSerialize on TodoResponse
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+}
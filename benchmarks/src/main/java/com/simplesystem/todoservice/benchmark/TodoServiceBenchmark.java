@@ -0,0 +1,142 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.simplesystem.todoservice.dto.CreateTodoRequest;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TodoItemService hot paths against a seeded H2 table of several sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final List<TodoStatus> OPEN = List.of(TodoStatus.NOT_DONE, TodoStatus.PAST_DUE);
+
+    @Param({"1000", "10000", "100000"})
+    int tableSize;
+
+    private BenchmarkContext context;
+    private TodoItemService service;
+    private TodoItemRepository repository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private List<CreateTodoRequest> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("service-bench-" + tableSize);
+        TodoTableSeeder.seedMixed(context.jdbc(), tableSize);
+        service = context.bean(TodoItemService.class);
+        repository = context.bean(TodoItemRepository.class);
+        entityManager = context.bean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            CreateTodoRequest request = new CreateTodoRequest();
+            request.setDescription("Batch benchmark " + i);
+            request.setDueTime(LocalDateTime.now().plusDays(1));
+            batch.add(request);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TodoItem create() {
+        return service.create("Benchmark", LocalDateTime.now().plusDays(1));
+    }
+
+    // Per-item cost of the batch path, comparable with create()
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<TodoItem> createBatch() {
+        return service.createAll(batch);
+    }
+
+    @Benchmark
+    public TodoItem getById() {
+        return service.getById(randomId());
+    }
+
+    @Benchmark
+    public TodoResponse getResponseById() {
+        return service.getResponseById(randomId());
+    }
+
+    // Cache miss path: one row projected straight into a response
+    @Benchmark
+    public TodoResponse getResponseByIdUncached() {
+        return repository.findResponseById(randomId()).orElseThrow();
+    }
+
+    // Baseline for the above: managed entity loaded, then copied into a response
+    @Benchmark
+    public TodoResponse getResponseByIdFromEntity() {
+        return readOnly.execute(status -> TodoResponse.fromEntity(entityManager.find(TodoItem.class, randomId())));
+    }
+
+    @Benchmark
+    public TodoPage getPage() {
+        return service.getPage(null, false, null, null, null, null);
+    }
+
+    // Open items due within the next hour: a bounded index range scan, so flat across table sizes
+    @Benchmark
+    public TodoPage getDue() {
+        return service.getDue(null, null, LocalDateTime.now().plusHours(1), null, null);
+    }
+
+    // Baseline for getDue: what clients did before, the whole open list filtered in memory
+    @Benchmark
+    public List<TodoResponse> getDueByFilteringAll() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plusHours(1);
+        return service.getAll(false).stream()
+                .filter(item -> item.getStatus() == TodoStatus.NOT_DONE)
+                .filter(item -> !item.getDueTime().isBefore(now) && item.getDueTime().isBefore(to))
+                .toList();
+    }
+
+    @Benchmark
+    public List<TodoResponse> getAllUnpaged() {
+        return service.getAll(false);
+    }
+
+    // Baseline for getAllUnpaged: managed entities loaded, then copied into responses
+    @Benchmark
+    public List<TodoResponse> getAllUnpagedFromEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("select t from TodoItem t where t.status in :statuses", TodoItem.class)
+                .setParameter("statuses", OPEN)
+                .getResultStream()
+                .map(TodoResponse::fromEntity)
+                .toList());
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// Bulk-loads todo_items through plain JDBC batches, much faster than going through the service
+final class TodoTableSeeder {
+
+    private static final int BATCH = 5_000;
+    // allocationSize of todo_items_seq
+    private static final int ID_BLOCK = 50;
+
+    private TodoTableSeeder() {
+    }
+
+    // Mostly completed history with a smaller open working set, due times in the future
+    static void seedMixed(JdbcTemplate jdbc, int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        seed(jdbc, rows,
+                i -> i % 20 == 0 ? TodoStatus.PAST_DUE : i % 5 == 0 ? TodoStatus.NOT_DONE : TodoStatus.DONE,
+                i -> now.plusMinutes(i));
+    }
+
+    // Every row NOT_DONE and already overdue
+    static void seedOverdue(JdbcTemplate jdbc, int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        seed(jdbc, rows, i -> TodoStatus.NOT_DONE, i -> now.minusMinutes(i));
+    }
+
+    static void seed(JdbcTemplate jdbc,
+                     int rows,
+                     IntFunction<TodoStatus> status,
+                     IntFunction<LocalDateTime> dueTime) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 1; i <= rows; i++) {
+            LocalDateTime due = dueTime.apply(i);
+            TodoStatus itemStatus = status.apply(i);
+            batch.add(new Object[]{
+                    (long) i,
+                    "Seeded task number " + i,
+                    itemStatus.name(),
+                    Timestamp.valueOf(due.minusDays(1)),
+                    Timestamp.valueOf(due),
+                    itemStatus == TodoStatus.DONE ? Timestamp.valueOf(due.minusHours(1)) : null,
+                    0L
+            });
+            if (batch.size() == BATCH || i == rows) {
+                jdbc.batchUpdate("""
+                        insert into todo_items (id, description, status, creation_time, due_time, completion_time, version)
+                        values (?, ?, ?, ?, ?, ?, ?)
+                        """, batch);
+                batch.clear();
+            }
+        }
+
+        // ids handed out by the service must not collide with the seeded ones; the pooled
+        // optimizer hands out the block of ids just below each sequence value
+        jdbc.execute("alter sequence todo_items_seq restart with " + (rows + ID_BLOCK + 1));
+        jdbc.execute("analyze");
+    }
+}
@@ -0,0 +1,98 @@
+package com.simplesystem.todoservice.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop HTTP load against the service, once on platform request threads and once
+// on virtual threads, with many more concurrent clients than JDBC connections.
+// Tunable via -Dclients, -Drows, -Dwarmup.seconds, -Dduration.seconds.
+public final class VirtualThreadLoadComparison {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 1000);
+    private static final int ROWS = Integer.getInteger("rows", 10_000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("warmup.seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("duration.seconds", 30));
+
+    private VirtualThreadLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            BenchmarkContext context = BenchmarkContext.startServer("load-" + mode,
+                    Map.of("spring.threads.virtual.enabled", String.valueOf(virtual)));
+            try {
+                TodoTableSeeder.seedMixed(context.jdbc(), ROWS);
+                String baseUrl = "http://localhost:" + context.port();
+
+                run(baseUrl, WARMUP);
+                report.add(run(baseUrl, MEASUREMENT).format(mode));
+            } finally {
+                context.close();
+            }
+        }
+
+        System.out.printf("%d clients, %d rows, %ds measured%n", CLIENTS, ROWS, MEASUREMENT.toSeconds());
+        report.forEach(System.out::println);
+    }
+
+    private static LoadSamples.Result run(String baseUrl, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<LoadSamples>> clients = new ArrayList<>(CLIENTS);
+
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> client(http, baseUrl, deadline)));
+            }
+
+            LoadSamples all = new LoadSamples();
+            for (Future<LoadSamples> client : clients) {
+                all.addAll(client.get());
+            }
+            return all.summarize(duration);
+        }
+    }
+
+    // Mix of single-item reads and first-page listings, back to back until the deadline
+    private static LoadSamples client(HttpClient http, String baseUrl, long deadline) {
+        LoadSamples samples = new LoadSamples();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            String path = random.nextInt(10) < 8
+                    ? "/todos/" + (1 + random.nextInt(ROWS))
+                    : "/todos?limit=20";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            long start = System.nanoTime();
+            try {
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    samples.add(System.nanoTime() - start);
+                } else {
+                    samples.errors++;
+                }
+            } catch (Exception e) {
+                samples.errors++;
+            }
+        }
+        return samples;
+    }
+}
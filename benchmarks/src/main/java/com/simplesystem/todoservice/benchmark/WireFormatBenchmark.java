@@ -0,0 +1,95 @@
+package com.simplesystem.todoservice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.simplesystem.todoservice.config.BinaryFormatConfig;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// JSON vs. the negotiated binary formats for a list response: serialize and deserialize
+// time (allocations with -prof gc), and encoded size per item, raw and gzipped, printed at setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<TodoResponse>> LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"1000"})
+    int listSize;
+
+    private ObjectMapper mapper;
+    private List<TodoResponse> responses;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the mappers the service's message converters use, from a builder with Spring Boot's
+        // defaults (plain Spring leaves WRITE_DATES_AS_TIMESTAMPS on)
+        BinaryFormatConfig config = new BinaryFormatConfig();
+        mapper = switch (format) {
+            case "json" -> bootBuilder().build();
+            case "smile" -> config.smileHttpMessageConverter(bootBuilder()).getObjectMapper();
+            case "cbor" -> config.cborHttpMessageConverter(bootBuilder()).getObjectMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        LocalDateTime now = LocalDateTime.now();
+        responses = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            boolean done = i % 3 == 0;
+            responses.add(new TodoResponse(
+                    (long) i,
+                    "Benchmark task number " + i,
+                    done ? TodoStatus.DONE : TodoStatus.NOT_DONE,
+                    now.minusDays(1),
+                    now.plusMinutes(i),
+                    done ? now : null,
+                    i % 5));
+        }
+        encoded = mapper.writeValueAsBytes(responses);
+
+        System.out.printf("%n%s: %.1f bytes per item, %.1f gzipped%n",
+                format, (double) encoded.length / listSize, (double) gzipped(encoded) / listSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<TodoResponse> deserialize() throws IOException {
+        return mapper.readValue(encoded, LIST);
+    }
+
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
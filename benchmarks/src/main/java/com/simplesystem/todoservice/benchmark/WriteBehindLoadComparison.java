@@ -0,0 +1,118 @@
+package com.simplesystem.todoservice.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Closed-loop write load over HTTP against the durable profile, once with a transaction per
+// write and once with write-behind group commit. Every client creates an item and marks it
+// done, back to back; each request counts once it has been answered, i.e. committed.
+// Tunable via -Dclients, -Dwarmup.seconds, -Dduration.seconds.
+public final class WriteBehindLoadComparison {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("warmup.seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("duration.seconds", 30));
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private WriteBehindLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean groupCommit : new boolean[]{false, true}) {
+            String mode = groupCommit ? "group-commit" : "per-write";
+            Path dataDir = Files.createTempDirectory("todo-writes");
+            try (BenchmarkContext context = BenchmarkContext.startDurableServer(dataDir,
+                    Map.of("todo.write-behind.enabled", String.valueOf(groupCommit)))) {
+                String baseUrl = "http://localhost:" + context.port();
+
+                run(baseUrl, WARMUP);
+                report.add(run(baseUrl, MEASUREMENT).format(mode));
+            } finally {
+                delete(dataDir);
+            }
+        }
+
+        System.out.printf("%d clients, %ds measured%n", CLIENTS, MEASUREMENT.toSeconds());
+        report.forEach(System.out::println);
+    }
+
+    private static LoadSamples.Result run(String baseUrl, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<LoadSamples>> clients = new ArrayList<>(CLIENTS);
+
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> client(http, baseUrl, deadline)));
+            }
+
+            LoadSamples all = new LoadSamples();
+            for (Future<LoadSamples> client : clients) {
+                all.addAll(client.get());
+            }
+            return all.summarize(duration);
+        }
+    }
+
+    private static LoadSamples client(HttpClient http, String baseUrl, long deadline) {
+        LoadSamples samples = new LoadSamples();
+        while (System.nanoTime() < deadline) {
+            String body = "{\"description\":\"Load\",\"dueTime\":\"" + LocalDateTime.now().plusDays(1) + "\"}";
+            String created = send(http, samples, HttpRequest.newBuilder(URI.create(baseUrl + "/todos"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            Matcher id = created != null ? ID.matcher(created) : null;
+            if (id == null || !id.find()) {
+                continue;
+            }
+            send(http, samples, HttpRequest.newBuilder(URI.create(baseUrl + "/todos/" + id.group(1) + "/done"))
+                    .PUT(HttpRequest.BodyPublishers.noBody()));
+        }
+        return samples;
+    }
+
+    // Response body of a 200, or null after counting the error
+    private static String send(HttpClient http, LoadSamples samples, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                samples.add(System.nanoTime() - start);
+                return response.body();
+            }
+        } catch (Exception e) {
+            // counted below
+        }
+        samples.errors++;
+        return null;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
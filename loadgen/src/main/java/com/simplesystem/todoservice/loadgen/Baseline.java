@@ -0,0 +1,59 @@
+package com.simplesystem.todoservice.loadgen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// Reference numbers of an accepted run, kept in a properties file next to the module.
+// Only runs of the same workload (rate and mix) are compared against it.
+record Baseline(int rps, String mix, double p99Millis, double throughput) {
+
+    static Baseline load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new Baseline(
+                Integer.parseInt(properties.getProperty("rps")),
+                properties.getProperty("mix"),
+                Double.parseDouble(properties.getProperty("p99.ms")),
+                Double.parseDouble(properties.getProperty("throughput.rps")));
+    }
+
+    void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("rps", String.valueOf(rps));
+        properties.setProperty("mix", mix);
+        properties.setProperty("p99.ms", String.format("%.2f", p99Millis));
+        properties.setProperty("throughput.rps", String.format("%.1f", throughput));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Load generator baseline; re-record with -Dbaseline.update=true");
+        }
+    }
+
+    // Reasons the run counts as a regression against this baseline; empty when it passes
+    List<String> regressions(Baseline run, double maxP99Regression, double maxThroughputRegression) {
+        List<String> regressions = new ArrayList<>();
+        if (run.rps != rps || !run.mix.equals(mix)) {
+            regressions.add(String.format("baseline was recorded for %d rps with mix %s, this run is %d rps with mix %s",
+                    rps, mix, run.rps, run.mix));
+            return regressions;
+        }
+        double p99Limit = p99Millis * (1 + maxP99Regression);
+        if (run.p99Millis > p99Limit) {
+            regressions.add(String.format("p99 %.2f ms exceeds %.2f ms (baseline %.2f ms + %.0f%%)",
+                    run.p99Millis, p99Limit, p99Millis, maxP99Regression * 100));
+        }
+        double throughputLimit = throughput * (1 - maxThroughputRegression);
+        if (run.throughput < throughputLimit) {
+            regressions.add(String.format("throughput %.1f req/s is below %.1f req/s (baseline %.1f req/s - %.0f%%)",
+                    run.throughput, throughputLimit, throughput, maxThroughputRegression * 100));
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,155 @@
+package com.simplesystem.todoservice.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesystem.todoservice.TodoserviceApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Starts the service on a random port, seeds it over HTTP, drives an open-model workload
+// against the REST API (see OpenLoopRunner) and compares overall p99 and throughput with the
+// stored baseline. Exits with 1 on a regression; -Dbaseline.update=true records the run instead.
+// Per-operation latency distributions are written to target/loadgen/<operation>.hgrm.
+// Tunable via -Drps, -Dmix, -Dwarmup.seconds, -Dduration.seconds, -Dbaseline,
+// -Dmax.p99.regression, -Dmax.throughput.regression, -Dmax.error.rate.
+public final class LoadGenerator {
+
+    private static final int RPS = Integer.getInteger("rps", 50);
+    private static final String MIX = System.getProperty("mix", "create:10,list:20,get:40,patch:10,done:10,not-done:10");
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("warmup.seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("duration.seconds", 30));
+    private static final Path BASELINE = Path.of(System.getProperty("baseline", "baseline.properties"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("baseline.update");
+    private static final double MAX_P99_REGRESSION = Double.parseDouble(System.getProperty("max.p99.regression", "0.25"));
+    private static final double MAX_THROUGHPUT_REGRESSION = Double.parseDouble(System.getProperty("max.throughput.regression", "0.10"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("max.error.rate", "0.01"));
+
+    private static final int SEED_ITEMS = 1000;
+    private static final Path REPORT_DIR = Path.of("target", "loadgen");
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Workload workload = Workload.parse(RPS, MIX);
+        boolean passed;
+        try (ConfigurableApplicationContext context = start();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            OpenLoopRunner runner = new OpenLoopRunner(http, baseUrl, seed(http, baseUrl), workload);
+
+            runner.run(WARMUP);
+            OpenLoopRunner.Result result = runner.run(MEASUREMENT);
+            report(workload, result);
+            passed = gate(workload, result);
+        }
+        // the HTTP client and the service leave non-daemon threads behind
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodoserviceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadgen",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    // Creates the items that get, patch, done and not-done work on, through the API itself
+    private static List<Long> seed(HttpClient http, String baseUrl) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("[");
+        String dueTime = LocalDateTime.now().plusDays(7).toString();
+        for (int i = 0; i < SEED_ITEMS; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"description\":\"Seeded ").append(i).append("\",\"dueTime\":\"").append(dueTime).append("\"}");
+        }
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/todos/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.append("]").toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+
+        List<Long> ids = new ArrayList<>(SEED_ITEMS);
+        for (JsonNode item : new ObjectMapper().readTree(response.body())) {
+            ids.add(item.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private static void report(Workload workload, OpenLoopRunner.Result result) throws IOException {
+        System.out.printf("%d rps target, mix %s, %ds measured%n", workload.rps(), workload.mix(), MEASUREMENT.toSeconds());
+        System.out.printf("%-10s %8s %10s %10s %10s %10s%n", "operation", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+            print(entry.getKey().key(), entry.getValue());
+        }
+        print("all", result.total());
+        System.out.printf("throughput %.1f req/s, %d errors (%.2f%%)%n",
+                result.throughput(), result.errors(), result.errorRate() * 100);
+
+        Files.createDirectories(REPORT_DIR);
+        for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve(entry.getKey().key() + ".hgrm")))) {
+                // values are recorded in microseconds, the distribution is printed in milliseconds
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static void print(String name, Histogram histogram) {
+        System.out.printf("%-10s %8d %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static boolean gate(Workload workload, OpenLoopRunner.Result result) throws IOException {
+        Baseline run = new Baseline(workload.rps(), workload.mix(),
+                millis(result.total().getValueAtPercentile(99)), result.throughput());
+
+        if (UPDATE_BASELINE) {
+            run.save(BASELINE);
+            System.out.println("baseline written to " + BASELINE.toAbsolutePath());
+            return true;
+        }
+        if (!Files.exists(BASELINE)) {
+            System.out.println("no baseline at " + BASELINE.toAbsolutePath() + "; record one with -Dbaseline.update=true");
+            return false;
+        }
+
+        List<String> regressions = Baseline.load(BASELINE).regressions(run, MAX_P99_REGRESSION, MAX_THROUGHPUT_REGRESSION);
+        if (result.errorRate() > MAX_ERROR_RATE) {
+            regressions.add(String.format("error rate %.2f%% exceeds %.2f%%", result.errorRate() * 100, MAX_ERROR_RATE * 100));
+        }
+        regressions.forEach(regression -> System.out.println("REGRESSION: " + regression));
+        System.out.println(regressions.isEmpty() ? "within baseline: OK" : "regressed against baseline");
+        return regressions.isEmpty();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
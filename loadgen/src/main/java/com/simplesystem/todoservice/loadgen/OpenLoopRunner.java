@@ -0,0 +1,105 @@
+package com.simplesystem.todoservice.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: request i is due at start + i / rps, whether or not earlier requests have
+// been answered, and is sent on its own virtual thread. Latency is measured from the time the
+// request was due, not from when it actually went out, so a stalled server is charged for
+// every request that queued up behind the stall (no coordinated omission).
+final class OpenLoopRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final List<Long> ids;
+    private final Workload workload;
+
+    OpenLoopRunner(HttpClient http, String baseUrl, List<Long> ids, Workload workload) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.ids = ids;
+        this.workload = workload;
+    }
+
+    Result run(Duration duration) {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        workload.weights().keySet().forEach(operation ->
+                latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3)));
+        AtomicLong errors = new AtomicLong();
+        AtomicLong lastResponse = new AtomicLong();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / workload.rps();
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = workload.next(ThreadLocalRandom.current());
+                senders.execute(() -> {
+                    boolean ok = send(operation);
+                    long now = System.nanoTime();
+                    lastResponse.accumulateAndGet(now, Math::max);
+                    if (ok) {
+                        latencies.get(operation).recordValue(
+                                Math.min(TimeUnit.NANOSECONDS.toMicros(now - due), MAX_LATENCY_MICROS));
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+        }
+        return new Result(latencies, errors.get(), Duration.ofNanos(lastResponse.get() - start));
+    }
+
+    private boolean send(Operation operation) {
+        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        try {
+            int status = http.send(operation.request(baseUrl, id).timeout(REQUEST_TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Latencies in microseconds per operation; elapsed runs until the last response arrived,
+    // so a server that falls behind shows up as lower throughput as well
+    record Result(Map<Operation, Histogram> latencies, long errors, Duration elapsed) {
+
+        Histogram total() {
+            Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        double throughput() {
+            return total().getTotalCount() / (elapsed.toNanos() / 1e9);
+        }
+
+        double errorRate() {
+            long all = total().getTotalCount() + errors;
+            return all == 0 ? 0 : errors / (double) all;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.simplesystem.todoservice.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+
+// The REST calls the workload is made of; id is one of the items seeded before the run
+enum Operation {
+
+    CREATE("create") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return json(baseUrl + "/todos").POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"description\":\"Load " + id + "\",\"dueTime\":\"" + LocalDateTime.now().plusDays(1) + "\"}"));
+        }
+    },
+    LIST("list") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/todos?includeDone=true&limit=20")).GET();
+        }
+    },
+    GET("get") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/todos/" + id)).GET();
+        }
+    },
+    PATCH("patch") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return json(baseUrl + "/todos/" + id).method("PATCH", HttpRequest.BodyPublishers.ofString(
+                    "{\"description\":\"Patched " + System.nanoTime() + "\"}"));
+        }
+    },
+    DONE("done") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/todos/" + id + "/done"))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    NOT_DONE("not-done") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long id) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/todos/" + id + "/not-done"))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, long id);
+
+    static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+    }
+}
@@ -0,0 +1,57 @@
+package com.simplesystem.todoservice.loadgen;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// Target arrival rate plus a weighted operation mix, e.g. "create:10,get:90"
+record Workload(int rps, Map<Operation, Integer> weights) {
+
+    Workload {
+        if (rps <= 0) {
+            throw new IllegalArgumentException("rps must be positive");
+        }
+        if (weights.isEmpty() || weights.values().stream().anyMatch(weight -> weight < 0)
+                || weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix needs non-negative weights with a positive sum");
+        }
+        weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+    }
+
+    static Workload parse(int rps, String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            weights.merge(Operation.byKey(parts[0].trim()), Integer.parseInt(parts[1].trim()), Integer::sum);
+        }
+        return new Workload(rps, weights);
+    }
+
+    Operation next(RandomGenerator random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("pick exceeds the total weight");
+    }
+
+    // Canonical form, stored with the baseline so that only like runs are compared
+    String mix() {
+        StringBuilder mix = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (!mix.isEmpty()) {
+                mix.append(',');
+            }
+            mix.append(operation.key()).append(':').append(weight);
+        });
+        return mix.toString();
+    }
+}
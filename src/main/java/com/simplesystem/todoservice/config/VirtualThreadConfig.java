@@ -0,0 +1,27 @@
+package com.simplesystem.todoservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+// Active with spring.threads.virtual.enabled=true, which makes Spring Boot serve requests
+// and run @Scheduled tasks on virtual threads
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<JdbcConcurrencyLimitFilter> jdbcConcurrencyLimitFilter(
+            @Value("${todo.jdbc-limiter.permits}") int permits,
+            @Value("${todo.jdbc-limiter.acquire-timeout-ms}") long acquireTimeoutMs) {
+        FilterRegistrationBean<JdbcConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new JdbcConcurrencyLimitFilter(permits, acquireTimeoutMs, Set.of("/todos/events")));
+        registration.addUrlPatterns("/todos", "/todos/*");
+        return registration;
+    }
+}
@@ -1,9 +1,33 @@
 package com.simplesystem.todoservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.simplesystem.todoservice.config.BinaryFormatConfig;
 import com.simplesystem.todoservice.dto.*;
+import com.simplesystem.todoservice.feed.TodoEventFeed;
 import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.service.TodoChangeCounter;
 import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import com.simplesystem.todoservice.service.TodoStatusCounters;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -11,9 +35,27 @@ import java.util.List;
 public class TodoItemController {
 
     private final TodoItemService service;
+    private final TodoChangeCounter changes;
+    private final TodoStatusCounters counters;
+    private final TodoEventFeed feed;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
 
-    public TodoItemController(TodoItemService service) {
+    public TodoItemController(TodoItemService service,
+                              TodoChangeCounter changes,
+                              TodoStatusCounters counters,
+                              TodoEventFeed feed,
+                              ObjectMapper objectMapper,
+                              MappingJackson2SmileHttpMessageConverter smileConverter,
+                              MappingJackson2CborHttpMessageConverter cborConverter) {
         this.service = service;
+        this.changes = changes;
+        this.counters = counters;
+        this.feed = feed;
+        this.objectMapper = objectMapper;
+        this.smileMapper = smileConverter.getObjectMapper();
+        this.cborMapper = cborConverter.getObjectMapper();
     }
 
     // Create
@@ -23,19 +65,150 @@ public class TodoItemController {
         return TodoResponse.fromEntity(item);
     }
 
-    // List
+    // Create many items in one transaction; either all are created or none
+    @PostMapping("/batch")
+    public List<TodoResponse> createBatch(@RequestBody List<CreateTodoRequest> requests) {
+        return toResponses(service.createAll(requests));
+    }
+
+    // List, one keyset page at a time ordered by (dueTime, id).
+    // The ETag is the collection change counter: when nothing changed since the client's
+    // copy, the answer is a 304 without touching the database. Without a counter that sees
+    // every write (several instances on one database) there is no list ETag.
     @GetMapping
-    public List<TodoResponse> getAll(@RequestParam(defaultValue = "false") boolean includeDone) {
-        return service.getAll(includeDone)
-                .stream()
-                .map(TodoResponse::fromEntity)
-                .toList();
+    public TodoPageResponse getAll(
+            @RequestParam(defaultValue = "false") boolean includeDone,
+            @RequestParam(required = false) List<TodoStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
+        if (listNotModified(request, response)) {
+            return null;
+        }
+
+        TodoPage page = service.getPage(status, includeDone, dueFrom, dueTo, cursor, limit);
+        return TodoPageResponse.of(page.items(), page.next());
+    }
+
+    // unpaged=true opts in to the old unbounded listing, as the bare array it always returned
+    // (only includeDone applies there)
+    @GetMapping(params = "unpaged=true")
+    public List<TodoResponse> getAllUnpaged(
+            @RequestParam(defaultValue = "false") boolean includeDone,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
+        if (listNotModified(request, response)) {
+            return null;
+        }
+
+        return service.getAll(includeDone);
+    }
+
+    // Items due in a time window, soonest first: from defaults to now, status to NOT_DONE.
+    // Paged like GET /todos.
+    @GetMapping("/due")
+    public TodoPageResponse due(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<TodoStatus> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        TodoPage page = service.getDue(status, from, to, cursor, limit);
+        return TodoPageResponse.of(page.items(), page.next());
+    }
+
+    // Ranked full-text search over descriptions; status filtering and paging as for GET /todos
+    @GetMapping("/search")
+    public TodoPageResponse search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean includeDone,
+            @RequestParam(required = false) List<TodoStatus> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        TodoPage page = service.search(q, status, includeDone, cursor, limit);
+        return TodoPageResponse.of(page.items(), page.next());
+    }
+
+    // Server-Sent Events stream of committed changes; Last-Event-ID resumes after a reconnect
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return feed.subscribe(lastEventId);
     }
 
-    // Get by id
+    // Counts per status and open items due within the hour, from in-memory counters
+    @GetMapping("/summary")
+    public TodoSummaryResponse summary() {
+        return counters.summary();
+    }
+
+    // Every item as newline-delimited JSON, written while the rows are read. A client naming
+    // Smile or CBOR in Accept gets the items as consecutive values of that format instead
+    // (for CBOR, a CBOR sequence as in RFC 8742); anything else gets NDJSON.
+    @GetMapping(value = "/export", produces = {
+            MediaType.APPLICATION_NDJSON_VALUE, BinaryFormatConfig.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "false") boolean includeDone,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) List<MediaType> accept
+    ) {
+        for (MediaType type : accept) {
+            if (type.equalsTypeAndSubtype(BinaryFormatConfig.SMILE)) {
+                return export(smileMapper, BinaryFormatConfig.SMILE, includeDone);
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return export(cborMapper, MediaType.APPLICATION_CBOR, includeDone);
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+                break;
+            }
+        }
+        return export(objectMapper, MediaType.APPLICATION_NDJSON, includeDone);
+    }
+
+    // Root values one after another through a single generator, so a binary format keeps its
+    // shared-name table for the whole response
+    private ResponseEntity<StreamingResponseBody> export(ObjectMapper mapper, MediaType type, boolean includeDone) {
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        boolean newlineDelimited = !mapper.getFactory().canHandleBinaryNatively();
+        StreamingResponseBody body = out -> {
+            // commit the headers before the query runs
+            out.flush();
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                if (newlineDelimited) {
+                    generator.setRootValueSeparator(null);
+                }
+                service.export(includeDone, item -> {
+                    try {
+                        writer.writeValue(generator, item);
+                        if (newlineDelimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(body);
+    }
+
+    // Get by id, with an ETag from the item version (usually answered from the cache).
+    // The creation time guards against ids reused by a recreated in-memory database.
     @GetMapping("/{id}")
-    public TodoResponse getOne(@PathVariable Long id) {
-        return TodoResponse.fromEntity(service.getById(id));
+    public TodoResponse getOne(@PathVariable Long id, WebRequest request, HttpServletResponse response) {
+        TodoResponse item = service.getResponseById(id);
+        String tag = item.getVersion() + "-" + Integer.toHexString(item.getCreationTime().hashCode());
+        return notModified(tag, request, response) ? null : item;
     }
 
     // Update due_time and/or description
@@ -44,16 +217,7 @@ public class TodoItemController {
             @PathVariable Long id,
             @RequestBody UpdateTodoRequest request
     ) {
-        TodoItem item = service.getById(id);
-
-        if (request.getDescription() != null) {
-            item = service.updateDescription(id, request.getDescription());
-        }
-
-        if (request.getDueTime() != null) {
-            item = service.updateDueTime(id, request.getDueTime());
-        }
-
+        TodoItem item = service.update(id, request.getDescription(), request.getDueTime());
         return TodoResponse.fromEntity(item);
     }
 
@@ -70,4 +234,22 @@ public class TodoItemController {
         TodoItem updated = service.markNotDone(id);
         return TodoResponse.fromEntity(updated);
     }
+
+    private boolean listNotModified(WebRequest request, HttpServletResponse response) {
+        // read before querying, so a concurrent write can only make the tag older than the body
+        return changes.isAvailable() && notModified(changes.current(), request, response);
+    }
+
+    // The same tag goes out for the JSON, Smile and CBOR bodies, so it is weak (equivalent
+    // content, not identical bytes) and caches are told to keep the formats apart
+    private static boolean notModified(String tag, WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return request.checkNotModified("W/\"" + tag + "\"");
+    }
+
+    private List<TodoResponse> toResponses(List<TodoItem> items) {
+        return items.stream()
+                .map(TodoResponse::fromEntity)
+                .toList();
+    }
 }
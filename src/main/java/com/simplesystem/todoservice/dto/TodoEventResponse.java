@@ -0,0 +1,24 @@
+package com.simplesystem.todoservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.simplesystem.todoservice.model.TodoStatus;
+import lombok.Data;
+
+// Payload of one GET /todos/events message. item is the full snapshot after a service
+// write; items moved to PAST_DUE by the sweep or timer carry only id and status.
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoEventResponse {
+
+    private long id;
+    private TodoStatus status;
+    private TodoResponse item;
+
+    public static TodoEventResponse of(long id, TodoStatus status, TodoResponse item) {
+        TodoEventResponse dto = new TodoEventResponse();
+        dto.setId(id);
+        dto.setStatus(status);
+        dto.setItem(item);
+        return dto;
+    }
+}
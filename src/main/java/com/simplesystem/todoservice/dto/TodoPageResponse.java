@@ -0,0 +1,18 @@
+package com.simplesystem.todoservice.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class TodoPageResponse {
+
+    private List<TodoResponse> items;
+    private String next;
+
+    public static TodoPageResponse of(List<TodoResponse> items, String next) {
+        TodoPageResponse dto = new TodoPageResponse();
+        dto.setItems(items);
+        dto.setNext(next);
+        return dto;
+    }
+}
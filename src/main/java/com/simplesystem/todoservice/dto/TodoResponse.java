@@ -1,28 +1,33 @@
 package com.simplesystem.todoservice.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.simplesystem.todoservice.model.TodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
-import lombok.Data;
+import lombok.Value;
 import java.time.LocalDateTime;
 
-@Data
+// Immutable snapshot of an item; safe to cache and share between threads
+@Value
+@JsonSerialize(using = TodoResponseSerializer.class)
 public class TodoResponse {
 
-    private Long id;
-    private String description;
-    private TodoStatus status;
-    private LocalDateTime creationTime;
-    private LocalDateTime dueTime;
-    private LocalDateTime completionTime;
+    Long id;
+    String description;
+    TodoStatus status;
+    LocalDateTime creationTime;
+    LocalDateTime dueTime;
+    LocalDateTime completionTime;
+    long version;
 
     public static TodoResponse fromEntity(TodoItem item) {
-        TodoResponse dto = new TodoResponse();
-        dto.setId(item.getId());
-        dto.setDescription(item.getDescription());
-        dto.setStatus(item.getStatus());
-        dto.setCreationTime(item.getCreationTime());
-        dto.setDueTime(item.getDueTime());
-        dto.setCompletionTime(item.getCompletionTime());
-        return dto;
+        return new TodoResponse(
+                item.getId(),
+                item.getDescription(),
+                item.getStatus(),
+                item.getCreationTime(),
+                item.getDueTime(),
+                item.getCompletionTime(),
+                item.getVersion()
+        );
     }
 }
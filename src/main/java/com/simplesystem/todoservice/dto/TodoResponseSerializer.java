@@ -0,0 +1,231 @@
+package com.simplesystem.todoservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.simplesystem.todoservice.model.TodoStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Streams a TodoResponse straight to the generator, producing exactly what the reflective bean
+// serializer with JavaTimeModule would, for JSON and the binary formats alike. Field names and
+// statuses are encoded once; an item's timestamps are formatted into one 29-char buffer it
+// allocates, instead of a String each. Honours WRITE_DATES_AS_TIMESTAMPS,
+// WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS and every default property inclusion, resolved once per
+// mapper when Jackson contextualizes the serializer.
+public class TodoResponseSerializer extends StdSerializer<TodoResponse> implements ContextualSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CREATION_TIME = new SerializedString("creationTime");
+    private static final SerializedString DUE_TIME = new SerializedString("dueTime");
+    private static final SerializedString COMPLETION_TIME = new SerializedString("completionTime");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private static final SerializedString[] STATUSES = new SerializedString[TodoStatus.values().length];
+
+    static {
+        for (TodoStatus status : TodoStatus.values()) {
+            STATUSES[status.ordinal()] = new SerializedString(status.name());
+        }
+    }
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_TIMESTAMP_LENGTH = 29;
+
+    // null until contextualized, and after deserialization
+    private final transient Omission omission;
+
+    public TodoResponseSerializer() {
+        this(null);
+    }
+
+    private TodoResponseSerializer(Omission omission) {
+        super(TodoResponse.class);
+        this.omission = omission;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        return new TodoResponseSerializer(omission(provider));
+    }
+
+    @Override
+    public void serialize(TodoResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Omission omission = this.omission != null ? this.omission : omission(provider);
+        gen.writeStartObject(value);
+
+        if (!omission.omits(value.getId())) {
+            gen.writeFieldName(ID);
+            if (value.getId() != null) {
+                gen.writeNumber(value.getId());
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        if (!omission.omits(value.getDescription())) {
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(value.getDescription());
+        }
+
+        if (!omission.omits(value.getStatus())) {
+            gen.writeFieldName(STATUS);
+            if (value.getStatus() != null) {
+                gen.writeString(STATUSES[value.getStatus().ordinal()]);
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        // no buffer when timestamps are written as arrays
+        char[] buffer = provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                ? null
+                : new char[MAX_TIMESTAMP_LENGTH];
+        writeTimestamp(CREATION_TIME, value.getCreationTime(), omission, buffer, gen, provider);
+        writeTimestamp(DUE_TIME, value.getDueTime(), omission, buffer, gen, provider);
+        writeTimestamp(COMPLETION_TIME, value.getCompletionTime(), omission, buffer, gen, provider);
+
+        if (!omission.omitsNumber(value.getVersion())) {
+            gen.writeFieldName(VERSION);
+            gen.writeNumber(value.getVersion());
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static Omission omission(SerializerProvider provider) throws JsonMappingException {
+        JsonInclude.Value inclusion = provider.getConfig().getDefaultPropertyInclusion(TodoResponse.class);
+        return switch (inclusion.getValueInclusion()) {
+            case ALWAYS, USE_DEFAULTS -> Omission.NOTHING;
+            // NON_ABSENT differs from NON_NULL only for Optional and references, of which there are none
+            case NON_NULL, NON_ABSENT -> Omission.NULLS;
+            case NON_EMPTY -> Omission.EMPTY;
+            case NON_DEFAULT -> Omission.DEFAULTS;
+            case CUSTOM -> {
+                Object filter = provider.includeFilterInstance(null, inclusion.getValueFilter());
+                yield new Omission(provider.includeFilterSuppressNulls(filter), false, false, filter);
+            }
+        };
+    }
+
+    private static void writeTimestamp(SerializedString name,
+                                       LocalDateTime value,
+                                       Omission omission,
+                                       char[] buffer,
+                                       JsonGenerator gen,
+                                       SerializerProvider provider) throws IOException {
+        if (omission.omits(value)) {
+            return;
+        }
+
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (buffer == null) {
+            writeArray(value, gen, provider);
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            // expanded years carry a sign; rare enough for the formatter
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            gen.writeString(buffer, 0, formatIso(value, buffer));
+        }
+    }
+
+    // Same layout as JavaTimeModule's LocalDateTimeSerializer: trailing zero seconds and nanos left out
+    private static void writeArray(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        gen.writeNumber(value.getYear());
+        gen.writeNumber(value.getMonthValue());
+        gen.writeNumber(value.getDayOfMonth());
+        gen.writeNumber(value.getHour());
+        gen.writeNumber(value.getMinute());
+        int seconds = value.getSecond();
+        int nanos = value.getNano();
+        if (seconds > 0 || nanos > 0) {
+            gen.writeNumber(seconds);
+            if (nanos > 0) {
+                gen.writeNumber(provider.isEnabled(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                        ? nanos
+                        : nanos / 1_000_000);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    // ISO_LOCAL_DATE_TIME for years 0000-9999: the fraction only as long as needed, none if zero.
+    // Returns the length written.
+    static int formatIso(LocalDateTime value, char[] buffer) {
+        int pos = 0;
+        pos = digits(value.getYear(), 4, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(value.getMonthValue(), 2, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(value.getDayOfMonth(), 2, buffer, pos);
+        buffer[pos++] = 'T';
+        pos = digits(value.getHour(), 2, buffer, pos);
+        buffer[pos++] = ':';
+        pos = digits(value.getMinute(), 2, buffer, pos);
+        buffer[pos++] = ':';
+        pos = digits(value.getSecond(), 2, buffer, pos);
+
+        int nanos = value.getNano();
+        if (nanos > 0) {
+            int length = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                length--;
+            }
+            buffer[pos++] = '.';
+            pos = digits(nanos, length, buffer, pos);
+        }
+        return pos;
+    }
+
+    // value zero-padded to exactly width digits
+    private static int digits(int value, int width, char[] buffer, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    // The properties a default inclusion leaves out, as the bean serializer decides them.
+    // NON_EMPTY adds empty strings to the nulls; NON_DEFAULT, lacking a default constructor to
+    // take defaults from, adds those of the property types: "" and 0. A CUSTOM filter leaves out
+    // what it equals.
+    private record Omission(boolean nulls, boolean emptyStrings, boolean zeros, Object filter) {
+
+        static final Omission NOTHING = new Omission(false, false, false, null);
+        static final Omission NULLS = new Omission(true, false, false, null);
+        static final Omission EMPTY = new Omission(true, true, false, null);
+        static final Omission DEFAULTS = new Omission(true, true, true, null);
+
+        boolean omits(Object value) {
+            if (value == null) {
+                return nulls;
+            }
+            if (filter != null) {
+                return filter.equals(value);
+            }
+            return (emptyStrings && "".equals(value)) || (zeros && value instanceof Long number && number == 0);
+        }
+
+        boolean omitsNumber(long value) {
+            return filter != null ? filter.equals(value) : zeros && value == 0;
+        }
+    }
+}
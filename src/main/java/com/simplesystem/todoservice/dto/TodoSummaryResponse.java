@@ -0,0 +1,19 @@
+package com.simplesystem.todoservice.dto;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class TodoSummaryResponse {
+
+    private Map<TodoStatus, Long> counts;
+    private long dueInNextHour;
+
+    public static TodoSummaryResponse of(Map<TodoStatus, Long> counts, long dueInNextHour) {
+        TodoSummaryResponse dto = new TodoSummaryResponse();
+        dto.setCounts(counts);
+        dto.setDueInNextHour(dueInNextHour);
+        return dto;
+    }
+}
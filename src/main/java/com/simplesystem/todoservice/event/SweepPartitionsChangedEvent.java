@@ -0,0 +1,7 @@
+package com.simplesystem.todoservice.event;
+
+import java.util.Set;
+
+// Published when the set of sweep partitions (id mod partitions) this instance leases changes
+public record SweepPartitionsChangedEvent(int partitions, Set<Integer> owned) {
+}
@@ -0,0 +1,17 @@
+package com.simplesystem.todoservice.event;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoStatus;
+
+// Published by TodoItemService after every write.
+// previousStatus is null when the item was just created.
+public record TodoItemChangedEvent(TodoStatus previousStatus, TodoResponse item) {
+
+    public boolean isCreated() {
+        return previousStatus == null;
+    }
+
+    public boolean isStatusChanged() {
+        return previousStatus != null && previousStatus != item.getStatus();
+    }
+}
@@ -0,0 +1,7 @@
+package com.simplesystem.todoservice.event;
+
+import java.util.List;
+
+// Published for every batch of items moved from NOT_DONE to PAST_DUE
+public record TodoItemsPastDueEvent(List<Long> ids) {
+}
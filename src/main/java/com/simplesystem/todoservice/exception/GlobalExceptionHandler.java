@@ -1,9 +1,13 @@
 package com.simplesystem.todoservice.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -14,6 +18,13 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentModification(OptimisticLockingFailureException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("Item was modified concurrently, please retry");
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
         return ResponseEntity
@@ -21,6 +32,23 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    // Write queue full: back off and retry
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleTooManyWrites(RejectedExecutionException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    // Write still being committed when the caller stopped waiting: it may or may not have landed
+    @ExceptionHandler(TransactionTimedOutException.class)
+    public ResponseEntity<String> handleWriteTimeout(TransactionTimedOutException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleNotFound(RuntimeException ex) {
         return ResponseEntity
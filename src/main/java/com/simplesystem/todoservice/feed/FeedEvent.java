@@ -0,0 +1,12 @@
+package com.simplesystem.todoservice.feed;
+
+// One message of the change feed, serialized once and shared by every subscriber.
+// A null name marks a keep-alive comment.
+record FeedEvent(String id, String name, String data) {
+
+    static final FeedEvent KEEP_ALIVE = new FeedEvent(null, null, null);
+
+    static FeedEvent resync(String id) {
+        return new FeedEvent(id, "resync", "{}");
+    }
+}
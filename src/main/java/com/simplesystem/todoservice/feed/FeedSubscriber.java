@@ -0,0 +1,115 @@
+package com.simplesystem.todoservice.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+// One connected client: a bounded ring of undelivered events, drained by a task on the
+// shared executor only while there is something to send, so an idle subscriber holds no
+// thread. When the ring is full the buffered events are dropped and the client gets a
+// single resync event in their place.
+final class FeedSubscriber {
+
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final FeedEvent[] ring;
+    private int head;
+    private int size;
+    private String droppedUpTo;
+    private boolean draining;
+    private boolean closed;
+
+    FeedSubscriber(SseEmitter emitter, Executor executor, int capacity) {
+        this.emitter = emitter;
+        this.executor = executor;
+        this.ring = new FeedEvent[capacity];
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void offer(FeedEvent event) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (event == FeedEvent.KEEP_ALIVE) {
+                // anything already queued keeps the connection alive as well
+                if (size > 0 || droppedUpTo != null) {
+                    return;
+                }
+            } else if (droppedUpTo != null) {
+                // folded into the pending resync
+                droppedUpTo = event.id();
+            } else if (size == ring.length) {
+                // too far behind: drop everything, the client refetches instead
+                Arrays.fill(ring, null);
+                head = 0;
+                size = 0;
+                droppedUpTo = event.id();
+            }
+            if (droppedUpTo == null) {
+                ring[(head + size) % ring.length] = event;
+                size++;
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            FeedEvent next;
+            synchronized (this) {
+                if (closed) {
+                    draining = false;
+                    return;
+                }
+                if (droppedUpTo != null) {
+                    next = FeedEvent.resync(droppedUpTo);
+                    droppedUpTo = null;
+                } else if (size > 0) {
+                    next = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    size--;
+                } else {
+                    draining = false;
+                    return;
+                }
+            }
+
+            try {
+                send(next);
+            } catch (IOException | IllegalStateException e) {
+                // client went away; the emitter callbacks unsubscribe it
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void send(FeedEvent event) throws IOException {
+        if (event.name() == null) {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        emitter.send(builder.name(event.name()).data(event.data()));
+    }
+}
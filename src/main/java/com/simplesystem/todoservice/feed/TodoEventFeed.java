@@ -0,0 +1,173 @@
+package com.simplesystem.todoservice.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesystem.todoservice.dto.TodoEventResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import com.simplesystem.todoservice.model.TodoStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Server-Sent Events feed of committed item changes for GET /todos/events.
+// Every change gets an id "<instance>-<sequence>" and is serialized once; the last
+// todo.events.history-size of them are kept so a client reconnecting with Last-Event-ID
+// gets what it missed. An id from another instance, an earlier run, or too far back
+// yields a resync event instead, telling the client to refetch GET /todos.
+// Subscribers are async requests; sending happens on virtual threads and only while a
+// subscriber has queued events, so idle connections cost no thread.
+// The changes are this process's own: when several instances share the database
+// (todo.pastdue.partitioning.enabled) a subscriber sees only the writes and past-due moves of
+// the instance it is connected to, and has to refetch for the rest.
+@Component
+public class TodoEventFeed {
+
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int historySize;
+    private final long timeoutMs;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guards sequence, history and subscribers, so every subscriber sees events in id order
+    private final Object lock = new Object();
+    private long sequence;
+    private final ArrayDeque<FeedEvent> history = new ArrayDeque<>();
+    private final List<FeedSubscriber> subscribers = new ArrayList<>();
+
+    public TodoEventFeed(ObjectMapper objectMapper,
+                         @Value("${todo.events.buffer-size}") int bufferSize,
+                         @Value("${todo.events.history-size}") int historySize,
+                         @Value("${todo.events.timeout-ms}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // New subscriber; lastEventId is the Last-Event-ID header of a reconnecting client, or null
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        FeedSubscriber subscriber = new FeedSubscriber(emitter, senders, bufferSize);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        synchronized (lock) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            // the response headers go out with the first write; without one the client
+            // would not see the stream open until the first change or keep-alive
+            subscriber.offer(FeedEvent.KEEP_ALIVE);
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        synchronized (lock) {
+            return subscribers.size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        String name = event.isCreated() ? "created" : event.isStatusChanged() ? "status-changed" : "updated";
+        publish(name, TodoEventResponse.of(event.item().getId(), event.item().getStatus(), event.item()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        for (Long id : event.ids()) {
+            publish("past-due", TodoEventResponse.of(id, TodoStatus.PAST_DUE, null));
+        }
+    }
+
+    // Keeps idle connections from being cut by proxies and notices clients that went away
+    @Scheduled(fixedRateString = "${todo.events.keep-alive-ms}")
+    public void keepAlive() {
+        synchronized (lock) {
+            subscribers.forEach(subscriber -> subscriber.offer(FeedEvent.KEEP_ALIVE));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        List<FeedSubscriber> open;
+        synchronized (lock) {
+            open = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        open.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter().complete();
+        });
+        senders.shutdownNow();
+    }
+
+    private void publish(String name, TodoEventResponse payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (lock) {
+            FeedEvent event = new FeedEvent(instance + "-" + (++sequence), name, data);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    // Called with the lock held
+    private void replay(FeedSubscriber subscriber, String lastEventId) {
+        long last = sequenceOf(lastEventId);
+        long oldest = history.isEmpty() ? sequence + 1 : sequenceOf(history.getFirst().id());
+        if (last < 0 || last > sequence || last < oldest - 1) {
+            subscriber.offer(FeedEvent.resync(instance + "-" + sequence));
+            return;
+        }
+        for (FeedEvent event : history) {
+            if (sequenceOf(event.id()) > last) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    // -1 unless the id was issued by this instance
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(instance)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void unsubscribe(FeedSubscriber subscriber) {
+        subscriber.close();
+        synchronized (lock) {
+            subscribers.remove(subscriber);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.simplesystem.todoservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Records how many rows each TodoItemRepository call returned or changed, per method.
+// Latency per method comes from Spring Boot's spring.data.repository.invocations timer.
+@Aspect
+@Component
+public class RepositoryRowsAspect {
+
+    private final MeterRegistry registry;
+
+    public RepositoryRowsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("this(com.simplesystem.todoservice.repository.TodoItemRepository)")
+    public Object recordRows(ProceedingJoinPoint call) throws Throwable {
+        Object result = call.proceed();
+        String method = call.getSignature().getName();
+
+        // streams are counted as they are consumed and recorded when closed
+        if (result instanceof Stream<?> stream) {
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment())
+                    .onClose(() -> rows(method).record(rows.sum()));
+        }
+
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            rows(method).record(rows);
+        }
+        return result;
+    }
+
+    private DistributionSummary rows(String method) {
+        return DistributionSummary.builder("todo.repository.rows")
+                .description("Rows returned or changed by a TodoItemRepository call")
+                .baseUnit("rows")
+                .tag("method", method)
+                .register(registry);
+    }
+
+    // Row count of a repository result, or -1 for results that are not rows (counts, flags, void)
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Optional<?> row) {
+            return row.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer updated) {
+            return updated;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+}
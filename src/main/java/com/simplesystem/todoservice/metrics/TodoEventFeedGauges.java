@@ -0,0 +1,25 @@
+package com.simplesystem.todoservice.metrics;
+
+import com.simplesystem.todoservice.feed.TodoEventFeed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Connected change feed subscribers (todo.events.subscribers)
+@Component
+public class TodoEventFeedGauges implements MeterBinder {
+
+    private final TodoEventFeed feed;
+
+    public TodoEventFeedGauges(TodoEventFeed feed) {
+        this.feed = feed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.events.subscribers", feed, TodoEventFeed::subscriberCount)
+                .description("Connected change feed subscribers")
+                .register(registry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.simplesystem.todoservice.metrics;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.service.TodoStatusCounters;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Live item count per status (todo.items{status=...}), read from the in-memory counters
+@Component
+public class TodoStatusGauges implements MeterBinder {
+
+    private final TodoStatusCounters counters;
+
+    public TodoStatusGauges(TodoStatusCounters counters) {
+        this.counters = counters;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TodoStatus status : TodoStatus.values()) {
+            Gauge.builder("todo.items", counters, c -> c.count(status))
+                    .description("Todo items per status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+}
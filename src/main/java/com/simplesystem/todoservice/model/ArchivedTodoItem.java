@@ -0,0 +1,61 @@
+package com.simplesystem.todoservice.model;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Cold copy of a DONE or PAST_DUE item that outlived the retention window, moved out of
+// todo_items by TodoArchiver. Same columns and id; archived items are read-only.
+@Entity
+@Table(
+        name = "todo_items_archive",
+        indexes = {
+                // Keyset paging order for GET /todos
+                @Index(name = "idx_todo_items_archive_status_due_time_id", columnList = "status, due_time, id"),
+                // Per-status reads in id order: export, the search fallback and the counts
+                @Index(name = "idx_todo_items_archive_status_id", columnList = "status, id")
+        }
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedTodoItem {
+
+    // Taken over from todo_items, never generated here
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TodoStatus status;
+
+    @Column(nullable = false, precision = 9)
+    private LocalDateTime creationTime;
+
+    @Column(nullable = false, precision = 9)
+    private LocalDateTime dueTime;
+
+    @Column(precision = 9)
+    private LocalDateTime completionTime;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false, precision = 9)
+    private LocalDateTime archivedAt;
+
+    // Detached TodoItem with the archived values, for callers that read entities
+    public TodoItem toItem() {
+        return TodoItem.builder()
+                .id(id)
+                .description(description)
+                .status(status)
+                .creationTime(creationTime)
+                .dueTime(dueTime)
+                .completionTime(completionTime)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.simplesystem.todoservice.model;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Lease on one hash partition (id mod partitions) of todo_items for the past-due sweep.
+// A partition is swept only by its owner while the lease has not expired.
+@Entity
+@Table(name = "todo_sweep_leases")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class SweepLease {
+
+    @Id
+    private Integer partitionNo;
+
+    // Null while unclaimed
+    @Column(length = 64)
+    private String owner;
+
+    @Column(nullable = false, precision = 9)
+    private LocalDateTime expiresAt;
+}
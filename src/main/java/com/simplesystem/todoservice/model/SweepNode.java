@@ -0,0 +1,22 @@
+package com.simplesystem.todoservice.model;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Heartbeat of one service instance taking part in partitioned sweeping; the number of
+// live rows decides each instance's fair share of partitions
+@Entity
+@Table(name = "todo_sweep_nodes")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class SweepNode {
+
+    @Id
+    @Column(length = 64)
+    private String nodeId;
+
+    @Column(nullable = false, precision = 9)
+    private LocalDateTime expiresAt;
+}
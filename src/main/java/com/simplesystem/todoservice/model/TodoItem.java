@@ -5,7 +5,19 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "todo_items")
+@Table(
+        name = "todo_items",
+        indexes = {
+                // Status filters and the past-due sweep (status = ? and due_time < ?)
+                @Index(name = "idx_todo_items_status_due_time_id", columnList = "status, due_time, id"),
+                // Keyset paging order for GET /todos
+                @Index(name = "idx_todo_items_due_time_id", columnList = "due_time, id"),
+                // Exports and the search fallback, one status at a time in id order
+                @Index(name = "idx_todo_items_status_id", columnList = "status, id"),
+                // Archival of DONE items by completion time
+                @Index(name = "idx_todo_items_status_completion_time", columnList = "status, completion_time")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -13,8 +25,11 @@ import lombok.*;
 @Builder
 public class TodoItem {
 
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts:
+    // ids are handed out 50 at a time without a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_items_seq")
+    @SequenceGenerator(name = "todo_items_seq", sequenceName = "todo_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,19 +39,30 @@ public class TodoItem {
     @Column(nullable = false)
     private TodoStatus status;
 
-    @Column(nullable = false)
+    // Timestamps keep full nanosecond precision so values read back from the
+    // database compare equal to the ones that were written
+    @Column(nullable = false, precision = 9)
     private LocalDateTime creationTime;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 9)
     private LocalDateTime dueTime;
 
+    @Column(precision = 9)
     private LocalDateTime completionTime;
 
+    // Bumped by every write; status transitions compare-and-set on (status, version)
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // Factory method to create valid TodoItem
     public static TodoItem create(String description, LocalDateTime dueTime) {
         if (description == null || description.isBlank()) {
             throw new IllegalArgumentException("Description must not be empty");
         }
+        if (dueTime == null) {
+            throw new IllegalArgumentException("Due time must not be empty");
+        }
         if (dueTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Due time must be in the future");
         }
@@ -0,0 +1,89 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.ArchivedTodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Reads mirror those of TodoItemRepository, so the service can fall back to the archive
+// with the same shapes and ordering
+public interface ArchivedTodoItemRepository extends JpaRepository<ArchivedTodoItem, Long> {
+
+    String RESPONSE = "new com.simplesystem.todoservice.dto.TodoResponse("
+            + "a.id, a.description, a.status, a.creationTime, a.dueTime, a.completionTime, a.version)";
+
+    @Query("select " + RESPONSE + " from ArchivedTodoItem a where a.status in :statuses")
+    List<TodoResponse> findResponsesByStatusIn(@Param("statuses") List<TodoStatus> statuses);
+
+    @Query("select " + RESPONSE + " from ArchivedTodoItem a where a.id = :id")
+    Optional<TodoResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select new com.simplesystem.todoservice.repository.TodoStatusCount(a.status, count(a)) from ArchivedTodoItem a group by a.status")
+    List<TodoStatusCount> countGroupedByStatus();
+
+    // One status in id order from idx_todo_items_archive_status_id, like
+    // TodoItemRepository.streamResponsesByStatus
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + RESPONSE + " from ArchivedTodoItem a where a.status = :status order by a.status, a.id")
+    Stream<TodoResponse> streamResponsesByStatus(@Param("status") TodoStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + RESPONSE + " from ArchivedTodoItem a order by a.id")
+    Stream<TodoResponse> streamResponses();
+
+    @Query("select " + RESPONSE + " from ArchivedTodoItem a where a.id in :ids")
+    List<TodoResponse> findResponsesByIdIn(@Param("ids") List<Long> ids);
+
+    // Search fallback over the archive, one status in id order from
+    // idx_todo_items_archive_status_id; as for todo_items, the scan stops at the limit
+    @Query("""
+            select a.id from ArchivedTodoItem a
+            where a.status = :status and lower(a.description) like :pattern escape '\\'
+            order by a.status, a.id
+            """)
+    List<Long> findIdsByStatusAndDescriptionLike(@Param("status") TodoStatus status,
+                                                 @Param("pattern") String pattern,
+                                                 Limit limit);
+
+    // Archived items of one status due in [dueFrom, dueTo) after (afterDueTime, afterId), in
+    // (dueTime, id) order: an ordered range scan of idx_todo_items_archive_status_due_time_id
+    // that stops at the limit, like TodoItemRepository.findDue
+    @Query("select " + RESPONSE + """
+             from ArchivedTodoItem a
+            where a.status = :status
+              and a.dueTime >= :dueFrom and a.dueTime < :dueTo
+              and (a.dueTime > :afterDueTime or (a.dueTime = :afterDueTime and a.id > :afterId))
+            order by a.status, a.dueTime, a.id
+            """)
+    List<TodoResponse> findDue(@Param("status") TodoStatus status,
+                               @Param("dueFrom") LocalDateTime dueFrom,
+                               @Param("dueTo") LocalDateTime dueTo,
+                               @Param("afterDueTime") LocalDateTime afterDueTime,
+                               @Param("afterId") long afterId,
+                               Limit limit);
+
+    // Copies the given rows over from todo_items, re-checking that they are still archivable
+    // (see TodoItemRepository.deleteArchivable, which removes exactly the same rows)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            insert into ArchivedTodoItem (id, description, status, creationTime, dueTime, completionTime, version, archivedAt)
+            select t.id, t.description, t.status, t.creationTime, t.dueTime, t.completionTime, t.version, :now
+            from TodoItem t
+            where t.id in :ids
+            """ + " and " + TodoItemRepository.ARCHIVABLE)
+    int copyFromTodoItems(@Param("ids") List<Long> ids,
+                          @Param("cutoff") LocalDateTime cutoff,
+                          @Param("now") LocalDateTime now);
+}
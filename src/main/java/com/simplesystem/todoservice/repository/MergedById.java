@@ -0,0 +1,53 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// One id-ordered iterator over several that are each in id order, e.g. the same read from
+// todo_items and todo_items_archive; ids are unique across the inputs
+public final class MergedById implements Iterator<TodoResponse> {
+
+    private final List<? extends Iterator<TodoResponse>> runs;
+    private final TodoResponse[] heads;
+
+    public MergedById(List<? extends Iterator<TodoResponse>> runs) {
+        this.runs = runs;
+        this.heads = new TodoResponse[runs.size()];
+        for (int i = 0; i < heads.length; i++) {
+            advance(i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        for (TodoResponse head : heads) {
+            if (head != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public TodoResponse next() {
+        int smallest = -1;
+        for (int i = 0; i < heads.length; i++) {
+            if (heads[i] != null && (smallest < 0 || heads[i].getId() < heads[smallest].getId())) {
+                smallest = i;
+            }
+        }
+        if (smallest < 0) {
+            throw new NoSuchElementException();
+        }
+        TodoResponse next = heads[smallest];
+        advance(smallest);
+        return next;
+    }
+
+    private void advance(int run) {
+        heads[run] = runs.get(run).hasNext() ? runs.get(run).next() : null;
+    }
+}
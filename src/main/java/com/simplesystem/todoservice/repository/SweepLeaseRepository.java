@@ -0,0 +1,60 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.model.SweepLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Every change is a conditional UPDATE, so two instances can never both own a partition
+public interface SweepLeaseRepository extends JpaRepository<SweepLease, Integer> {
+
+    @Query("""
+            select l.partitionNo from SweepLease l
+            where l.owner = :owner and l.expiresAt > :now and l.partitionNo < :partitions
+            order by l.partitionNo
+            """)
+    List<Integer> findOwned(@Param("owner") String owner,
+                            @Param("now") LocalDateTime now,
+                            @Param("partitions") int partitions);
+
+    // Partitions nobody holds a live lease on
+    @Query("""
+            select l.partitionNo from SweepLease l
+            where (l.owner is null or l.expiresAt <= :now) and l.partitionNo < :partitions
+            order by l.partitionNo
+            """)
+    List<Integer> findClaimable(@Param("now") LocalDateTime now, @Param("partitions") int partitions);
+
+    // Extends every lease the owner still holds; an expired lease that someone else claimed
+    // in the meantime is no longer the owner's and stays lost
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SweepLease l set l.expiresAt = :expiresAt where l.owner = :owner")
+    int renew(@Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Takes the partition only if it is still unclaimed or expired; returns 0 when another
+    // instance got there first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update SweepLease l
+            set l.owner = :owner, l.expiresAt = :expiresAt
+            where l.partitionNo = :partitionNo and (l.owner is null or l.expiresAt <= :now)
+            """)
+    int claim(@Param("partitionNo") int partitionNo,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update SweepLease l
+            set l.owner = null, l.expiresAt = :now
+            where l.partitionNo in :partitionNos and l.owner = :owner
+            """)
+    int release(@Param("partitionNos") List<Integer> partitionNos,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.model.SweepNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SweepNodeRepository extends JpaRepository<SweepNode, String> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SweepNode n set n.expiresAt = :expiresAt where n.nodeId = :nodeId")
+    int renew(@Param("nodeId") String nodeId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from SweepNode n where n.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
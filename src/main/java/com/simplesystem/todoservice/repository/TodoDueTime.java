@@ -0,0 +1,6 @@
+package com.simplesystem.todoservice.repository;
+
+import java.time.LocalDateTime;
+
+public record TodoDueTime(Long id, LocalDateTime dueTime) {
+}
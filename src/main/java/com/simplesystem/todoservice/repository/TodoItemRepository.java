@@ -1,15 +1,203 @@
 package com.simplesystem.todoservice.repository;
 
+import com.simplesystem.todoservice.dto.TodoResponse;
 import com.simplesystem.todoservice.model.TodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+// Reads for the API select TodoResponse snapshots straight from the result set, without
+// managed entities or dirty-checking snapshots; entities are loaded only for writes.
 public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
 
-    List<TodoItem> findByStatusIn(List<TodoStatus> statuses);
-    List<TodoItem> findByStatusAndDueTimeBefore(TodoStatus status, LocalDateTime time);
+    String RESPONSE = "new com.simplesystem.todoservice.dto.TodoResponse("
+            + "t.id, t.description, t.status, t.creationTime, t.dueTime, t.completionTime, t.version)";
 
-}
\ No newline at end of file
+    // DONE items completed, and PAST_DUE items due, before :cutoff; these move to the archive.
+    // Each half is a range of its own index; the combined form only re-checks rows found by id.
+    String ARCHIVABLE_DONE = "t.status = com.simplesystem.todoservice.model.TodoStatus.DONE and t.completionTime < :cutoff";
+    String ARCHIVABLE_PAST_DUE = "t.status = com.simplesystem.todoservice.model.TodoStatus.PAST_DUE and t.dueTime < :cutoff";
+    String ARCHIVABLE = "((" + ARCHIVABLE_DONE + ") or (" + ARCHIVABLE_PAST_DUE + "))";
+
+    @Query("select " + RESPONSE + " from TodoItem t where t.status in :statuses")
+    List<TodoResponse> findResponsesByStatusIn(@Param("statuses") List<TodoStatus> statuses);
+
+    @Query("select " + RESPONSE + " from TodoItem t where t.id = :id")
+    Optional<TodoResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select " + RESPONSE + " from TodoItem t where t.id in :ids")
+    List<TodoResponse> findResponsesByIdIn(@Param("ids") List<Long> ids);
+
+    // Search fallback while the in-memory index is unavailable: ids of items in one status whose
+    // description contains the pattern, in id order from idx_todo_items_status_id, at most limit
+    // of them. The pattern itself cannot use an index, but the scan stops at the limit.
+    @Query("""
+            select t.id from TodoItem t
+            where t.status = :status and lower(t.description) like :pattern escape '\\'
+            order by t.status, t.id
+            """)
+    List<Long> findIdsByStatusAndDescriptionLike(@Param("status") TodoStatus status,
+                                                 @Param("pattern") String pattern,
+                                                 Limit limit);
+
+    @Query("select new com.simplesystem.todoservice.repository.TodoStatusCount(t.status, count(t)) from TodoItem t group by t.status")
+    List<TodoStatusCount> countGroupedByStatus();
+
+    long countByStatusAndDueTimeBefore(TodoStatus status, LocalDateTime time);
+
+    @Query("select t.status from TodoItem t where t.id = :id")
+    Optional<TodoStatus> findStatusById(@Param("id") Long id);
+
+    @Query("select new com.simplesystem.todoservice.repository.TodoState(t.status, t.version) from TodoItem t where t.id = :id")
+    Optional<TodoState> findStateById(@Param("id") Long id);
+
+    // Compare-and-set status transition: applies only while the row still has the expected
+    // status and version, so a concurrent writer's change is never overwritten.
+    // Returns 0 when the item is missing or was changed since (status, version) were read.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TodoItem t
+            set t.status = :to,
+                t.completionTime = :completionTime,
+                t.version = t.version + 1
+            where t.id = :id and t.status = :from and t.version = :version
+            """)
+    int transition(@Param("id") Long id,
+                   @Param("from") TodoStatus from,
+                   @Param("version") long version,
+                   @Param("to") TodoStatus to,
+                   @Param("completionTime") LocalDateTime completionTime);
+
+    // Applies description and/or due time in one statement; null leaves a field unchanged.
+    // Description may change while NOT_DONE or DONE, due time only while NOT_DONE.
+    // Returns 0 when the item is missing or in the wrong state.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TodoItem t
+            set t.description = coalesce(:description, t.description),
+                t.dueTime = coalesce(:dueTime, t.dueTime),
+                t.version = t.version + 1
+            where t.id = :id
+              and (t.status = com.simplesystem.todoservice.model.TodoStatus.NOT_DONE
+                   or (t.status = com.simplesystem.todoservice.model.TodoStatus.DONE and :dueTime is null))
+            """)
+    int updateDetails(@Param("id") Long id,
+                      @Param("description") String description,
+                      @Param("dueTime") LocalDateTime dueTime);
+
+    // Ids of overdue items, at most limit of them; the sweep works through these in chunks.
+    // The rows stay locked until the chunk commits, so the ids reported as moved are exact.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from TodoItem t where t.status = :status and t.dueTime < :time")
+    List<Long> findIdsByStatusAndDueTimeBefore(@Param("status") TodoStatus status,
+                                              @Param("time") LocalDateTime time,
+                                              Limit limit);
+
+    // Same as above, restricted to the hash partitions (id mod partitions) on which owner holds
+    // a live lease; checked in the same statement, so a lease lost meanwhile is respected
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select t.id from TodoItem t
+            where t.status = :status and t.dueTime < :time
+              and mod(t.id, :partitions) in (
+                  select l.partitionNo from SweepLease l where l.owner = :owner and l.expiresAt > :time)
+            """)
+    List<Long> findIdsByStatusAndDueTimeBeforeInLeasedPartitions(@Param("status") TodoStatus status,
+                                                                @Param("time") LocalDateTime time,
+                                                                @Param("partitions") int partitions,
+                                                                @Param("owner") String owner,
+                                                                Limit limit);
+
+    // Same as above, restricted to the given candidate ids
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from TodoItem t where t.id in :ids and t.status = :status and t.dueTime < :time")
+    List<Long> findIdsByIdInAndStatusAndDueTimeBefore(@Param("ids") List<Long> ids,
+                                                     @Param("status") TodoStatus status,
+                                                     @Param("time") LocalDateTime time);
+
+    // (id, dueTime) of every item in a status, without loading entities
+    @Query("select new com.simplesystem.todoservice.repository.TodoDueTime(t.id, t.dueTime) from TodoItem t where t.status = :status")
+    Stream<TodoDueTime> streamDueTimesByStatus(@Param("status") TodoStatus status);
+
+    // Same, restricted to the given hash partitions (id mod partitions)
+    @Query("""
+            select new com.simplesystem.todoservice.repository.TodoDueTime(t.id, t.dueTime) from TodoItem t
+            where t.status = :status and mod(t.id, :partitions) in :partitionNos
+            """)
+    Stream<TodoDueTime> streamDueTimesByStatusInPartitions(@Param("status") TodoStatus status,
+                                                           @Param("partitions") int partitions,
+                                                           @Param("partitionNos") Collection<Integer> partitionNos);
+
+    // Forward-only stream of one status in id order for exports, read in order from
+    // idx_todo_items_status_id (no sort holding the whole result) and fetched from the driver
+    // a bounded batch at a time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + RESPONSE + " from TodoItem t where t.status = :status order by t.status, t.id")
+    Stream<TodoResponse> streamResponsesByStatus(@Param("status") TodoStatus status);
+
+    // Every item in id order, walking the primary key
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + RESPONSE + " from TodoItem t order by t.id")
+    Stream<TodoResponse> streamResponses();
+
+    // Set-based NOT_DONE -> PAST_DUE transition; the conditions are re-checked so that items
+    // completed or rescheduled after the ids were read are left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update TodoItem t
+            set t.status = com.simplesystem.todoservice.model.TodoStatus.PAST_DUE,
+                t.version = t.version + 1
+            where t.id in :ids
+              and t.status = com.simplesystem.todoservice.model.TodoStatus.NOT_DONE
+              and t.dueTime < :now
+            """)
+    int markPastDue(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Ids of archivable DONE items, at most limit of them, from idx_todo_items_status_completion_time.
+    // The rows stay locked until the archiving batch commits, so a concurrent write waits for it
+    // and then finds the item archived.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from TodoItem t where " + ARCHIVABLE_DONE)
+    List<Long> findArchivableDoneIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    // Same for PAST_DUE items, from idx_todo_items_status_due_time_id
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from TodoItem t where " + ARCHIVABLE_PAST_DUE)
+    List<Long> findArchivablePastDueIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    // Removes the rows just copied by ArchivedTodoItemRepository.copyFromTodoItems
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TodoItem t where t.id in :ids and " + ARCHIVABLE)
+    int deleteArchivable(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    // Items of one status due in [dueFrom, dueTo) after (afterDueTime, afterId), in (dueTime, id)
+    // order: an ordered range scan of idx_todo_items_status_due_time_id that stops at the limit
+    @Query("select " + RESPONSE + """
+             from TodoItem t
+            where t.status = :status
+              and t.dueTime >= :dueFrom and t.dueTime < :dueTo
+              and (t.dueTime > :afterDueTime or (t.dueTime = :afterDueTime and t.id > :afterId))
+            order by t.status, t.dueTime, t.id
+            """)
+    List<TodoResponse> findDue(@Param("status") TodoStatus status,
+                               @Param("dueFrom") LocalDateTime dueFrom,
+                               @Param("dueTo") LocalDateTime dueTo,
+                               @Param("afterDueTime") LocalDateTime afterDueTime,
+                               @Param("afterId") long afterId,
+                               Limit limit);
+
+}
@@ -0,0 +1,7 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+
+// Status and version of an item, the expected values for a compare-and-set transition
+public record TodoState(TodoStatus status, long version) {
+}
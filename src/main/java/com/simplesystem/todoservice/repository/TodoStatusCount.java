@@ -0,0 +1,7 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+
+// Number of items in one status
+public record TodoStatusCount(TodoStatus status, long count) {
+}
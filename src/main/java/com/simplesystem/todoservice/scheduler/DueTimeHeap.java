@@ -0,0 +1,243 @@
+package com.simplesystem.todoservice.scheduler;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Indexed binary min-heap of (deadline, id) pairs kept in primitive arrays.
+// An open-addressing id -> slot index makes reschedule and cancel O(log n)
+// without boxing, at a few dozen bytes per tracked item. Not thread-safe.
+final class DueTimeHeap {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final SlotIndex slots = new SlotIndex();
+
+    int size() {
+        return size;
+    }
+
+    // Earliest deadline, or Long.MAX_VALUE when empty
+    long peekDeadline() {
+        return size == 0 ? Long.MAX_VALUE : deadlines[0];
+    }
+
+    // Adds the id or moves it to the new deadline
+    void schedule(long id, long deadline) {
+        int slot = slots.get(id);
+        if (slot >= 0) {
+            long previous = deadlines[slot];
+            deadlines[slot] = deadline;
+            if (deadline < previous) {
+                siftUp(slot);
+            } else {
+                siftDown(slot);
+            }
+            return;
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            deadlines = Arrays.copyOf(deadlines, size * 2);
+        }
+        ids[size] = id;
+        deadlines[size] = deadline;
+        slots.put(id, size);
+        siftUp(size++);
+    }
+
+    boolean cancel(long id) {
+        int slot = slots.remove(id);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    // Removes every id the filter matches; returns how many
+    int cancelIf(LongPredicate filter) {
+        long[] matched = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (filter.test(ids[slot])) {
+                matched[count++] = ids[slot];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            cancel(matched[i]);
+        }
+        return count;
+    }
+
+    // Number of entries with a deadline at or before the bound. Heap order lets the walk stop at
+    // the first later entry on every path, so the cost follows the result rather than the size.
+    int countUpTo(long bound) {
+        return countUpTo(0, bound);
+    }
+
+    private int countUpTo(int slot, long bound) {
+        if (slot >= size || deadlines[slot] > bound) {
+            return 0;
+        }
+        return 1 + countUpTo(2 * slot + 1, bound) + countUpTo(2 * slot + 2, bound);
+    }
+
+    // Removes up to out.length ids whose deadline is at or before now, earliest first
+    int pollExpired(long now, long[] out) {
+        int count = 0;
+        while (size > 0 && count < out.length && deadlines[0] <= now) {
+            long id = ids[0];
+            slots.remove(id);
+            removeAt(0);
+            out[count++] = id;
+        }
+        return count;
+    }
+
+    private void removeAt(int slot) {
+        int last = --size;
+        if (slot == last) {
+            return;
+        }
+        move(last, slot);
+        siftDown(slot);
+        siftUp(slot);
+    }
+
+    private void siftUp(int slot) {
+        long id = ids[slot];
+        long deadline = deadlines[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (deadlines[parent] <= deadline) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(id, deadline, slot);
+    }
+
+    private void siftDown(int slot) {
+        long id = ids[slot];
+        long deadline = deadlines[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && deadlines[right] < deadlines[child]) {
+                child = right;
+            }
+            if (deadline <= deadlines[child]) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(id, deadline, slot);
+    }
+
+    private void move(int from, int to) {
+        place(ids[from], deadlines[from], to);
+    }
+
+    private void place(long id, long deadline, int slot) {
+        ids[slot] = id;
+        deadlines[slot] = deadline;
+        slots.put(id, slot);
+    }
+
+    // Linear-probing long -> int map with backward-shift deletion
+    private static final class SlotIndex {
+
+        private static final int EMPTY = -1;
+
+        private long[] keys = new long[INITIAL_CAPACITY * 2];
+        private int[] values = filled(INITIAL_CAPACITY * 2);
+        private int count;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != EMPTY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return EMPTY;
+        }
+
+        void put(long key, int value) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != EMPTY) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++count * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            if (removed == EMPTY) {
+                return EMPTY;
+            }
+
+            // shift later entries of the probe chain back into the gap
+            int gap = i;
+            for (int j = (gap + 1) & mask; values[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean reachable = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+                if (!reachable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = EMPTY;
+            count--;
+            return removed;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = filled(oldKeys.length * 2);
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int[] filled(int length) {
+            int[] array = new int[length];
+            Arrays.fill(array, EMPTY);
+            return array;
+        }
+
+        private static int hash(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            return (int) key;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps todo_items down to the working set: DONE items completed, and PAST_DUE items due,
+// more than todo.archive.retention-days ago move to todo_items_archive, where reads still
+// find them. Works in batches of todo.archive.batch-size, each copied and deleted in its own
+// short transaction; progress is simply the rows already moved, so a pass that is cut short
+// (shutdown, crash, another instance archiving too) is picked up by the next one.
+@Component
+public class TodoArchiver {
+
+    private final TodoItemRepository repository;
+    private final ArchivedTodoItemRepository archive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long retentionDays;
+    private final int batchSize;
+
+    private final DistributionSummary movedPerPass;
+
+    public TodoArchiver(TodoItemRepository repository,
+                        ArchivedTodoItemRepository archive,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry registry,
+                        @Value("${todo.archive.enabled}") boolean enabled,
+                        @Value("${todo.archive.retention-days}") long retentionDays,
+                        @Value("${todo.archive.batch-size}") int batchSize) {
+        this.repository = repository;
+        this.archive = archive;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+
+        this.movedPerPass = DistributionSummary.builder("todo.archive.moved")
+                .description("Items moved to the archive by one pass")
+                .baseUnit("items")
+                .register(registry);
+    }
+
+    // Returns how many items were archived
+    @Scheduled(fixedDelayString = "${todo.archive.rate-ms}", initialDelayString = "${todo.archive.rate-ms}")
+    public int archive() {
+        if (!enabled) {
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += batch.moved();
+        } while (batch.selected() == batchSize);
+
+        movedPerPass.record(total);
+        return total;
+    }
+
+    private Batch archiveBatch(LocalDateTime cutoff) {
+        // DONE first, the rest of the batch from PAST_DUE; a full batch means another pass
+        List<Long> ids = new ArrayList<>(repository.findArchivableDoneIds(cutoff, Limit.of(batchSize)));
+        if (ids.size() < batchSize) {
+            ids.addAll(repository.findArchivablePastDueIds(cutoff, Limit.of(batchSize - ids.size())));
+        }
+        if (ids.isEmpty()) {
+            return new Batch(0, 0);
+        }
+
+        archive.copyFromTodoItems(ids, cutoff, LocalDateTime.now());
+        int moved = repository.deleteArchivable(ids, cutoff);
+        return new Batch(ids.size(), moved);
+    }
+
+    private record Batch(int selected, int moved) {
+    }
+}
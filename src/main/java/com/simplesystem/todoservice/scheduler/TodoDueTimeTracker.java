@@ -0,0 +1,268 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.event.SweepPartitionsChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoDueTime;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Moves NOT_DONE items to PAST_DUE as soon as their due time passes.
+// Deadlines of open items live in an in-memory min-heap, seeded at startup and kept
+// current from service events; a single thread sleeps until the earliest deadline.
+// With sweep partitioning on, an instance tracks only the items of the partitions it leases
+// (see TodoSweepPartitions): partitions gained are seeded from the database, those lost are
+// dropped from the heap, so each open item has one timer across the instances.
+// TodoPastDueScheduler remains as a rare reconciliation pass for anything missed here.
+@Component
+public class TodoDueTimeTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoDueTimeTracker.class);
+
+    private final TodoItemRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final TodoSweepPartitions sweepPartitions;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final DueTimeHeap heap = new DueTimeHeap();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition headChanged = lock.newCondition();
+
+    // Partitions tracked while partitioning is on; none until the first lease is taken
+    private volatile Set<Integer> ownedPartitions = Set.of();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public TodoDueTimeTracker(TodoItemRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher publisher,
+                              TodoSweepPartitions sweepPartitions,
+                              @Value("${todo.pastdue.timer.enabled}") boolean enabled,
+                              @Value("${todo.pastdue.sweep.chunk-size}") int chunkSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.sweepPartitions = sweepPartitions;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("todo-due-timer")
+                .daemon()
+                .start(this::run);
+
+        // partitioned instances seed as they take leases
+        if (!sweepPartitions.isEnabled()) {
+            seed(() -> repository.streamDueTimesByStatus(TodoStatus.NOT_DONE));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        if (event.item().getStatus() == TodoStatus.NOT_DONE && tracks(event.item().getId())) {
+            schedule(event.item().getId(), event.item().getDueTime());
+        } else {
+            cancel(event.item().getId());
+        }
+    }
+
+    // Runs on the heartbeat thread, after the lease changes have committed
+    @EventListener
+    public void onPartitionsChanged(SweepPartitionsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Integer> previous = ownedPartitions;
+        Set<Integer> gained = new HashSet<>(event.owned());
+        gained.removeAll(previous);
+        ownedPartitions = event.owned();
+
+        lock.lock();
+        try {
+            heap.cancelIf(id -> !event.owned().contains(partitionOf(id, event.partitions())));
+        } finally {
+            lock.unlock();
+        }
+        if (!gained.isEmpty()) {
+            seed(() -> repository.streamDueTimesByStatusInPartitions(TodoStatus.NOT_DONE, event.partitions(), gained));
+        }
+        log.info("Due-time timer follows sweep partitions {}: {} items tracked", event.owned(), trackedCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            event.ids().forEach(heap::cancel);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Whether the heap holds every open item, rather than only this instance's partitions
+    public boolean tracksAllItems() {
+        return enabled && !sweepPartitions.isEnabled();
+    }
+
+    // Open items due at or before the given time, straight from the heap
+    public int countDueBefore(LocalDateTime time) {
+        long bound = toDeadline(time);
+        lock.lock();
+        try {
+            return heap.countUpTo(bound);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int trackedCount() {
+        lock.lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void seed(Supplier<Stream<TodoDueTime>> query) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TodoDueTime> open = query.get()) {
+                open.forEach(entry -> schedule(entry.id(), entry.dueTime()));
+            }
+        });
+    }
+
+    private boolean tracks(long id) {
+        return !sweepPartitions.isEnabled()
+                || ownedPartitions.contains(partitionOf(id, sweepPartitions.partitions()));
+    }
+
+    // Same as mod(id, partitions) in the sweep queries; ids are positive
+    private static int partitionOf(long id, int partitions) {
+        return (int) (id % partitions);
+    }
+
+    private void schedule(long id, LocalDateTime dueTime) {
+        long deadline = toDeadline(dueTime);
+        lock.lock();
+        try {
+            boolean newHead = deadline < heap.peekDeadline();
+            heap.schedule(id, deadline);
+            if (newHead) {
+                headChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel(long id) {
+        lock.lock();
+        try {
+            heap.cancel(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        long[] expired = new long[chunkSize];
+        while (running) {
+            int count;
+            lock.lock();
+            try {
+                long wait = heap.peekDeadline() - System.currentTimeMillis();
+                if (wait > 0) {
+                    headChanged.await(wait, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                count = heap.pollExpired(System.currentTimeMillis(), expired);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            markPastDue(Arrays.stream(expired, 0, count).boxed().toList());
+        }
+    }
+
+    private void markPastDue(List<Long> candidates) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = repository.findIdsByIdInAndStatusAndDueTimeBefore(
+                        candidates, TodoStatus.NOT_DONE, now);
+
+                if (!ids.isEmpty()) {
+                    repository.markPastDue(ids, now);
+                    publisher.publishEvent(new TodoItemsPastDueEvent(ids));
+                }
+            });
+        } catch (RuntimeException e) {
+            // the reconciliation sweep picks these items up later
+            log.warn("Failed to mark {} items as past due", candidates.size(), e);
+        }
+    }
+
+    // First epoch millisecond strictly after the due time, so "dueTime < now" holds when fired
+    private static long toDeadline(LocalDateTime dueTime) {
+        return dueTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1;
+    }
+}
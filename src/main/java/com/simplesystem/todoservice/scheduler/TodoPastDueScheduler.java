@@ -1,38 +1,103 @@
 package com.simplesystem.todoservice.scheduler;
 
-import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
 import com.simplesystem.todoservice.model.TodoStatus;
 import com.simplesystem.todoservice.repository.TodoItemRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class TodoPastDueScheduler {
 
     private final TodoItemRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final TodoSweepPartitions sweepPartitions;
+    private final int chunkSize;
 
-    public TodoPastDueScheduler(TodoItemRepository repository) {
+    private final Timer sweepDuration;
+    private final DistributionSummary movedPerSweep;
+    // wall-clock millis when the last sweep finished; startup until the first one does
+    private final AtomicLong lastSweepAt = new AtomicLong(System.currentTimeMillis());
+
+    public TodoPastDueScheduler(TodoItemRepository repository,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher publisher,
+                                TodoSweepPartitions sweepPartitions,
+                                MeterRegistry registry,
+                                @Value("${todo.pastdue.sweep.chunk-size}") int chunkSize) {
         this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.sweepPartitions = sweepPartitions;
+        this.chunkSize = chunkSize;
+
+        this.sweepDuration = Timer.builder("todo.pastdue.sweep")
+                .description("Duration of a full past-due sweep")
+                .register(registry);
+        this.movedPerSweep = DistributionSummary.builder("todo.pastdue.sweep.moved")
+                .description("Items moved to PAST_DUE by one sweep")
+                .baseUnit("items")
+                .register(registry);
+        TimeGauge.builder("todo.pastdue.sweep.lag", lastSweepAt, TimeUnit.MILLISECONDS,
+                        last -> System.currentTimeMillis() - last.get())
+                .description("Time since the last sweep finished")
+                .register(registry);
     }
 
-    // Marks all NOT_DONE items as PAST_DUE
+    // Marks all overdue NOT_DONE items as PAST_DUE and returns how many rows changed.
+    // TodoDueTimeTracker normally does this at the deadline; this run reconciles anything it
+    // missed (items written by other processes, failed timer batches). Works in chunks of
+    // todo.pastdue.sweep.chunk-size, each in its own short transaction, so heap use and lock
+    // time depend on the chunk size rather than on the backlog. With
+    // todo.pastdue.partitioning.enabled, only the partitions leased by this instance are swept.
     // Use scheduler rate configuration passed in through application.properties
     @Scheduled(fixedRateString = "${todo.pastdue.check.rate-ms}")
-    public void markPastDueItems() {
-        List<TodoItem> overdueItems =
-                repository.findByStatusAndDueTimeBefore(TodoStatus.NOT_DONE, LocalDateTime.now());
+    public int markPastDueItems() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
 
-        if (overdueItems.isEmpty()) {
-            return;
-        }
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> markPastDueChunk(now));
+            total += chunk.moved();
+        } while (chunk.selected() == chunkSize);
+
+        sweepDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        movedPerSweep.record(total);
+        lastSweepAt.set(System.currentTimeMillis());
+        return total;
+    }
+
+    private Chunk markPastDueChunk(LocalDateTime now) {
+        List<Long> ids = sweepPartitions.isEnabled()
+                ? repository.findIdsByStatusAndDueTimeBeforeInLeasedPartitions(TodoStatus.NOT_DONE, now,
+                        sweepPartitions.partitions(), sweepPartitions.nodeId(), Limit.of(chunkSize))
+                : repository.findIdsByStatusAndDueTimeBefore(TodoStatus.NOT_DONE, now, Limit.of(chunkSize));
 
-        for (TodoItem item : overdueItems) {
-            item.setStatus(TodoStatus.PAST_DUE);
+        if (ids.isEmpty()) {
+            return new Chunk(0, 0);
         }
 
-        repository.saveAll(overdueItems);
+        int moved = repository.markPastDue(ids, now);
+        publisher.publishEvent(new TodoItemsPastDueEvent(ids));
+        return new Chunk(ids.size(), moved);
+    }
+
+    private record Chunk(int selected, int moved) {
     }
 }
@@ -0,0 +1,177 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.event.SweepPartitionsChangedEvent;
+import com.simplesystem.todoservice.model.SweepLease;
+import com.simplesystem.todoservice.model.SweepNode;
+import com.simplesystem.todoservice.repository.SweepLeaseRepository;
+import com.simplesystem.todoservice.repository.SweepNodeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Splits the past-due sweep across instances sharing one database. todo_items is divided into
+// hash partitions (id mod partitions); an instance sweeps only the partitions it holds an
+// unexpired lease on in todo_sweep_leases. Every heartbeat renews this instance's leases and
+// moves it towards its fair share (partitions / live instances): surplus leases are released,
+// unclaimed or expired ones are claimed. A dead instance's partitions are picked up by the
+// others on their first heartbeat after its leases expire.
+// Expiry is compared against each instance's own clock, so clock skew must stay well below
+// the lease duration. A SweepPartitionsChangedEvent goes out whenever a heartbeat changes the
+// partitions held, so TodoDueTimeTracker can follow.
+@Component
+public class TodoSweepPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoSweepPartitions.class);
+
+    private final SweepLeaseRepository leases;
+    private final SweepNodeRepository nodes;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final boolean enabled;
+    private final int partitions;
+    private final long leaseMs;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // As of the last successful heartbeat
+    private Set<Integer> held = Set.of();
+
+    public TodoSweepPartitions(SweepLeaseRepository leases,
+                               SweepNodeRepository nodes,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher publisher,
+                               @Value("${todo.pastdue.partitioning.enabled}") boolean enabled,
+                               @Value("${todo.pastdue.partitioning.partitions}") int partitions,
+                               @Value("${todo.pastdue.partitioning.lease-ms}") long leaseMs) {
+        this.leases = leases;
+        this.nodes = nodes;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.partitions = partitions;
+        this.leaseMs = leaseMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        // another instance may be creating the same rows at the same time
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            int p = partitionNo;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!leases.existsById(p)) {
+                        leases.saveAndFlush(new SweepLease(p, null, LocalDateTime.now()));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently
+            }
+        }
+        heartbeat();
+    }
+
+    // Hands the leases over right away instead of letting them expire
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Integer> owned = leases.findOwned(nodeId, now, partitions);
+            if (!owned.isEmpty()) {
+                leases.release(owned, nodeId, now);
+            }
+            nodes.deleteById(nodeId);
+        });
+    }
+
+    // Synchronized: the first scheduled run can overlap the one from start()
+    @Scheduled(fixedRateString = "${todo.pastdue.partitioning.heartbeat-ms}")
+    public synchronized void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Integer> owned;
+        try {
+            owned = Set.copyOf(transactionTemplate.execute(status -> rebalance()));
+        } catch (RuntimeException e) {
+            // leases run out on their own; the next heartbeat tries again
+            log.warn("Sweep partition heartbeat failed", e);
+            return;
+        }
+
+        if (!owned.equals(held)) {
+            held = owned;
+            publisher.publishEvent(new SweepPartitionsChangedEvent(partitions, owned));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    // Partitions this instance currently holds a live lease on
+    public List<Integer> owned() {
+        return leases.findOwned(nodeId, LocalDateTime.now(), partitions);
+    }
+
+    // Returns the partitions held afterwards
+    private List<Integer> rebalance() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(leaseMs * 1_000_000);
+
+        if (nodes.renew(nodeId, expiresAt) == 0) {
+            nodes.save(new SweepNode(nodeId, expiresAt));
+        }
+        nodes.deleteExpired(now);
+        long live = Math.max(1, nodes.countByExpiresAtAfter(now));
+        int fairShare = (int) ((partitions + live - 1) / live);
+
+        leases.renew(nodeId, expiresAt);
+        List<Integer> owned = leases.findOwned(nodeId, now, partitions);
+
+        if (owned.size() > fairShare) {
+            leases.release(owned.subList(fairShare, owned.size()), nodeId, now);
+            return owned.subList(0, fairShare);
+        }
+
+        List<Integer> result = new ArrayList<>(owned);
+        for (Integer partitionNo : leases.findClaimable(now, partitions)) {
+            if (result.size() >= fairShare) {
+                break;
+            }
+            if (leases.claim(partitionNo, nodeId, now, expiresAt) == 1) {
+                result.add(partitionNo);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.simplesystem.todoservice.search;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Sorted item ids of one term, stored as varint-encoded gaps. New items get increasing ids,
+// so adding is almost always an append; out-of-order adds and removals re-encode the list.
+// Not thread-safe.
+final class PostingList {
+
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int size;
+    private long last;
+
+    int size() {
+        return size;
+    }
+
+    // Bytes held by this list, for the index memory estimate
+    int capacity() {
+        return bytes.length;
+    }
+
+    boolean add(long id) {
+        if (size == 0 || id > last) {
+            append(id - last);
+            last = id;
+            size++;
+            return true;
+        }
+
+        long[] ids = toArray();
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return false;
+        }
+        int insert = -at - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insert);
+        updated[insert] = id;
+        System.arraycopy(ids, insert, updated, insert + 1, ids.length - insert);
+        encode(updated);
+        return true;
+    }
+
+    boolean remove(long id) {
+        long[] ids = toArray();
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return false;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+        encode(updated);
+        return true;
+    }
+
+    void forEach(LongConsumer action) {
+        long id = 0;
+        int position = 0;
+        while (position < length) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                gap |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += gap;
+            action.accept(id);
+        }
+    }
+
+    long[] toArray() {
+        long[] ids = new long[size];
+        int[] i = {0};
+        forEach(id -> ids[i[0]++] = id);
+        return ids;
+    }
+
+    private void encode(long[] ids) {
+        bytes = new byte[Math.max(4, ids.length * 2)];
+        length = 0;
+        size = 0;
+        last = 0;
+        for (long id : ids) {
+            append(id - last);
+            last = id;
+            size++;
+        }
+    }
+
+    private void append(long gap) {
+        if (length + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+        }
+        while ((gap & ~0x7fL) != 0) {
+            bytes[length++] = (byte) ((gap & 0x7f) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[length++] = (byte) gap;
+    }
+}
@@ -0,0 +1,349 @@
+package com.simplesystem.todoservice.search;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.MergedById;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// In-memory inverted index over item descriptions for GET /todos/search.
+// Terms live in a sorted map of compressed id postings, so every query word also matches
+// the indexed terms it is a prefix of. Built at startup from one streaming scan of todo_items
+// and the archive and kept current from the change events; an item's version decides between
+// a scanned row and an event that raced it. Archived items stay indexed, as they no longer
+// change. If the estimated footprint passes todo.search.max-memory-bytes the index drops its
+// content and reports itself unavailable, and callers use the database.
+// The events are this instance's own, so with several instances on one database
+// (todo.pastdue.partitioning.enabled) the index is never built and searches always use the
+// database.
+@Component
+public class TodoSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERM_LENGTH = 32;
+    private static final int MAX_QUERY_TERMS = 16;
+    // Rough JVM overheads per term (map node, key, posting list) and per item (map node,
+    // boxed key, entry, terms array header), for the memory estimate
+    private static final int TERM_OVERHEAD = 120;
+    private static final int ITEM_OVERHEAD = 96;
+
+    private final TodoItemRepository repository;
+    private final ArchivedTodoItemRepository archive;
+    private final TransactionTemplate readOnly;
+    private final long maxMemoryBytes;
+    private final boolean sharedDatabase;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<Long, Entry> items = new HashMap<>();
+    private long estimatedBytes;
+    private boolean exhausted;
+    private volatile boolean available;
+    private volatile boolean stopped;
+    private Thread builder;
+
+    public TodoSearchIndex(TodoItemRepository repository,
+                           ArchivedTodoItemRepository archive,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${todo.search.max-memory-bytes}") long maxMemoryBytes,
+                           @Value("${todo.pastdue.partitioning.enabled}") boolean sharedDatabase) {
+        this.repository = repository;
+        this.archive = archive;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.sharedDatabase = sharedDatabase;
+    }
+
+    // Searches use the database until the build completes
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (sharedDatabase) {
+            log.info("Search index disabled: other instances write to the database; searches use the database");
+            return;
+        }
+        builder = Thread.ofPlatform()
+                .name("todo-search-index")
+                .daemon()
+                .start(() -> {
+                    try {
+                        build();
+                    } catch (RuntimeException e) {
+                        if (!stopped) {
+                            log.warn("Search index build failed; searches fall back to the database", e);
+                        }
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        if (builder != null) {
+            builder.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void build() {
+        readOnly.executeWithoutResult(status -> {
+            // in id order, so postings are appended rather than inserted
+            try (Stream<TodoResponse> items = repository.streamResponses();
+                 Stream<TodoResponse> archived = archive.streamResponses()) {
+                MergedById rows = new MergedById(List.of(items.iterator(), archived.iterator()));
+                // stops reading at the first row that does not fit the budget, or on shutdown
+                boolean fits = true;
+                while (fits && !stopped && rows.hasNext()) {
+                    fits = index(rows.next());
+                }
+            }
+        });
+
+        lock.readLock().lock();
+        try {
+            available = !exhausted && !stopped;
+            log.info("Search index built: {} items, {} terms, ~{} KiB",
+                    items.size(), terms.size(), estimatedBytes / 1024);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // False while the index is being built or after it ran out of memory budget
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of items in the given statuses whose description has a term starting with every
+    // query word, best first, skipping offset of them. Empty when the index is unavailable.
+    public Optional<SearchResult> search(String query, Collection<TodoStatus> statuses, int offset, int limit) {
+        String[] words = terms(query);
+        if (words.length > MAX_QUERY_TERMS) {
+            words = Arrays.copyOf(words, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!available) {
+                return Optional.empty();
+            }
+
+            Map<Long, Match> matches = new HashMap<>();
+            for (int i = 0; i < words.length; i++) {
+                String word = words[i];
+                int bit = 1 << i;
+                for (Map.Entry<String, PostingList> term : prefixed(word).entrySet()) {
+                    PostingList postings = term.getValue();
+                    // rarer terms and whole-word hits weigh more
+                    double weight = Math.log(1 + items.size() / (double) postings.size())
+                            * (term.getKey().equals(word) ? 1.0 : 0.5);
+                    postings.forEach(id -> matches.computeIfAbsent(id, key -> new Match()).add(bit, weight));
+                }
+            }
+
+            int allWords = (1 << words.length) - 1;
+            Comparator<Map.Entry<Long, Match>> rank = Comparator
+                    .comparingDouble((Map.Entry<Long, Match> hit) -> hit.getValue().score)
+                    .reversed()
+                    .thenComparing(Map.Entry::getKey);
+
+            // keep only the best offset + limit + 1 hits; the extra one tells whether more exist
+            int keep = offset + limit + 1;
+            PriorityQueue<Map.Entry<Long, Match>> best = new PriorityQueue<>(rank.reversed());
+            for (Map.Entry<Long, Match> hit : matches.entrySet()) {
+                if (hit.getValue().words != allWords || !statuses.contains(items.get(hit.getKey()).status())) {
+                    continue;
+                }
+                best.add(hit);
+                if (best.size() > keep) {
+                    best.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Match>> ranked = new ArrayList<>(best);
+            ranked.sort(rank);
+            List<Long> ids = ranked.stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return Optional.of(new SearchResult(ids, ranked.size() > offset + limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        index(event.item());
+    }
+
+    // Only the status changes; the bulk update bumped each version by one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.ids()) {
+                items.computeIfPresent(id, (key, entry) ->
+                        new Entry(entry.version() + 1, TodoStatus.PAST_DUE, entry.terms()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lower-cased words of the text, each at most MAX_TERM_LENGTH long, distinct and sorted
+    static String[] terms(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return NON_WORD.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.length() > MAX_TERM_LENGTH ? word.substring(0, MAX_TERM_LENGTH) : word)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    // False once the index is over its budget
+    private boolean index(TodoResponse item) {
+        lock.writeLock().lock();
+        try {
+            if (exhausted) {
+                return false;
+            }
+
+            Entry previous = items.get(item.getId());
+            if (previous != null && previous.version() >= item.getVersion()) {
+                return true;
+            }
+
+            String[] current = terms(item.getDescription());
+            if (previous == null) {
+                estimatedBytes += ITEM_OVERHEAD + 8L * current.length;
+                current = addPostings(item.getId(), current);
+            } else if (!Arrays.equals(previous.terms(), current)) {
+                removePostings(item.getId(), previous.terms());
+                estimatedBytes += 8L * (current.length - previous.terms().length);
+                current = addPostings(item.getId(), current);
+            } else {
+                current = previous.terms();
+            }
+            items.put(item.getId(), new Entry(item.getVersion(), item.getStatus(), current));
+
+            if (estimatedBytes > maxMemoryBytes) {
+                exhaust();
+                return false;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the terms with strings shared with the dictionary keys
+    private String[] addPostings(long id, String[] words) {
+        String[] shared = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            String key = terms.ceilingKey(word);
+            PostingList postings;
+            if (word.equals(key)) {
+                postings = terms.get(key);
+            } else {
+                key = word;
+                postings = new PostingList();
+                terms.put(key, postings);
+                estimatedBytes += TERM_OVERHEAD + 2L * key.length();
+            }
+            int before = postings.capacity();
+            postings.add(id);
+            estimatedBytes += postings.capacity() - before;
+            shared[i] = key;
+        }
+        return shared;
+    }
+
+    private void removePostings(long id, String[] words) {
+        for (String word : words) {
+            PostingList postings = terms.get(word);
+            int before = postings.capacity();
+            postings.remove(id);
+            if (postings.size() == 0) {
+                terms.remove(word);
+                estimatedBytes -= before + TERM_OVERHEAD + 2L * word.length();
+            } else {
+                estimatedBytes += postings.capacity() - before;
+            }
+        }
+    }
+
+    private void exhaust() {
+        log.warn("Search index exceeds its memory budget of {} bytes after {} items; "
+                + "searches fall back to the database", maxMemoryBytes, items.size());
+        exhausted = true;
+        available = false;
+        terms.clear();
+        items.clear();
+        estimatedBytes = 0;
+    }
+
+    private Map<String, PostingList> prefixed(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    public record SearchResult(List<Long> ids, boolean more) {
+    }
+
+    private record Entry(long version, TodoStatus status, String[] terms) {
+    }
+
+    // Which query words an item matched, and its summed weight
+    private static final class Match {
+        private int words;
+        private double score;
+
+        void add(int word, double weight) {
+            words |= word;
+            score += weight;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Collection-level change counter behind the list ETags. Bumped after every committed
+// write (service changes, sweep and timer batches). The random per-process prefix keeps
+// tags from an earlier run, whose counter also started at zero, from matching.
+// It only sees this process's writes, so it is unavailable when several instances share
+// the database (todo.pastdue.partitioning.enabled).
+@Component
+public class TodoChangeCounter {
+
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong changes = new AtomicLong();
+    private final boolean available;
+
+    public TodoChangeCounter(@Value("${todo.pastdue.partitioning.enabled}") boolean sharedDatabase) {
+        this.available = !sharedDatabase;
+    }
+
+    // False when other instances write to the same database without bumping this counter
+    public boolean isAvailable() {
+        return available;
+    }
+
+    // Opaque token that changes whenever any item does
+    public String current() {
+        return instance + "-" + changes.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,92 @@
+package com.simplesystem.todoservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Bounded read-through cache of item snapshots by id (Caffeine, W-TinyLFU eviction).
+// Entries are invalidated after every committed write. A load runs on the caller's thread
+// outside any cache lock, behind a future that concurrent readers of the key share; an
+// invalidation just drops that future, so a snapshot read before the commit is never kept.
+// (Loading inside the cache's compute would make an invalidation, which runs after commit
+// while its connection is still held, wait for a load that waits for a connection.)
+// Hits, misses, evictions and size are published as the cache.* meters tagged cache=todo.items.
+// Invalidations only come from this process's writes, so when several instances share the
+// database (todo.pastdue.partitioning.enabled) every read goes to the database instead.
+@Component
+public class TodoItemCache {
+
+    private final AsyncCache<Long, TodoResponse> cache;
+    private final boolean bypassed;
+
+    public TodoItemCache(MeterRegistry registry,
+                         @Value("${todo.cache.max-size}") long maxSize,
+                         @Value("${todo.cache.expire-after-write-ms}") long expireAfterWriteMs,
+                         @Value("${todo.pastdue.partitioning.enabled}") boolean sharedDatabase) {
+        this.bypassed = sharedDatabase;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "todo.items");
+    }
+
+    public TodoResponse get(Long id, Function<Long, TodoResponse> loader) {
+        if (bypassed) {
+            return loader.apply(id);
+        }
+
+        CompletableFuture<TodoResponse> cached = cache.getIfPresent(id);
+        if (cached == null) {
+            CompletableFuture<TodoResponse> loading = new CompletableFuture<>();
+            cached = cache.asMap().putIfAbsent(id, loading);
+            if (cached == null) {
+                return load(id, loader, loading);
+            }
+        }
+
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        cache.synchronous().invalidate(event.item().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        cache.synchronous().invalidateAll(event.ids());
+    }
+
+    // A failed load completes its future exceptionally, which removes the entry again
+    private static TodoResponse load(Long id, Function<Long, TodoResponse> loader, CompletableFuture<TodoResponse> loading) {
+        try {
+            TodoResponse item = loader.apply(id);
+            loading.complete(item);
+            return item;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -1,98 +1,464 @@
 package com.simplesystem.todoservice.service;
 
+import com.simplesystem.todoservice.dto.CreateTodoRequest;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
 import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.ArchivedTodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.MergedById;
 import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoState;
+import com.simplesystem.todoservice.search.TodoSearchIndex;
+import com.simplesystem.todoservice.search.TodoSearchIndex.SearchResult;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TodoItemService {
 
+    // Open bounds used when the client does not restrict the due-time window
+    static final LocalDateTime MIN_DUE_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime MAX_DUE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    // Compare-and-set attempts per status transition before giving up with a conflict
+    static final int MAX_TRANSITION_ATTEMPTS = 3;
+
+    // Statuses an item can have once archived; reads for any of them also look at the archive
+    static final List<TodoStatus> ARCHIVED_STATUSES = List.of(TodoStatus.DONE, TodoStatus.PAST_DUE);
+
+    private static final Comparator<TodoResponse> PAGE_ORDER =
+            Comparator.comparing(TodoResponse::getDueTime).thenComparing(TodoResponse::getId);
+
     private final TodoItemRepository repository;
+    private final ArchivedTodoItemRepository archive;
+    private final TodoItemCache cache;
+    private final TodoSearchIndex searchIndex;
+    private final TodoWriteQueue writes;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final int maxBatchSize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public TodoItemService(TodoItemRepository repository) {
+    public TodoItemService(TodoItemRepository repository,
+                           ArchivedTodoItemRepository archive,
+                           TodoItemCache cache,
+                           TodoSearchIndex searchIndex,
+                           TodoWriteQueue writes,
+                           EntityManager entityManager,
+                           ApplicationEventPublisher publisher,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize,
+                           @Value("${todo.batch.max-size}") int maxBatchSize,
+                           @Value("${todo.page.default-size}") int defaultPageSize,
+                           @Value("${todo.page.max-size}") int maxPageSize) {
         this.repository = repository;
+        this.archive = archive;
+        this.cache = cache;
+        this.searchIndex = searchIndex;
+        this.writes = writes;
+        this.entityManager = entityManager;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    // Single-item writes run through the write queue, which commits them one by one or, with
+    // write-behind enabled, in groups; arguments are validated before anything is queued
+
     public TodoItem create(String description, LocalDateTime dueTime) {
         if (dueTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Due time must be in the future");
         }
 
-        TodoItem item = TodoItem.create(description, dueTime);
-        return repository.save(item);
+        // a fresh entity per attempt: a retried write must not reuse the id and version
+        // assigned by a flush that rolled back
+        return writes.execute(() -> published(null, repository.save(TodoItem.create(description, dueTime))));
     }
 
-    public List<TodoItem> getAll(boolean includeDone) {
-        if (includeDone) {
-            return repository.findAll();
+    // Validates every request first, then inserts all items in one transaction using
+    // JDBC batches. Results are returned in request order.
+    @Transactional
+    public List<TodoItem> createAll(List<CreateTodoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
         }
-        return repository.findByStatusIn(
-                List.of(TodoStatus.NOT_DONE, TodoStatus.PAST_DUE)
-        );
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchSize + " items");
+        }
+
+        List<TodoItem> items = new ArrayList<>(requests.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTodoRequest request = requests.get(i);
+            if (request == null) {
+                errors.add("Item " + i + ": must not be null");
+                continue;
+            }
+            try {
+                items.add(TodoItem.create(request.getDescription(), request.getDueTime()));
+            } catch (IllegalArgumentException e) {
+                errors.add("Item " + i + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+
+        // Flush and clear per JDBC batch so the persistence context stays small
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<TodoItem> chunk = items.subList(from, Math.min(from + batchSize, items.size()));
+            repository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        items.forEach(item -> published(null, item));
+        return items;
+    }
+
+    // Reads run in read-only transactions: Hibernate skips flushing and dirty checking,
+    // and the queries select response snapshots instead of managed entities
+    // Reads that may cover DONE or PAST_DUE items include the archive
+    @Transactional(readOnly = true)
+    public List<TodoResponse> getAll(boolean includeDone) {
+        List<TodoStatus> statuses = resolveStatuses(null, includeDone);
+        List<TodoResponse> items = new ArrayList<>(repository.findResponsesByStatusIn(statuses));
+        if (coversArchive(statuses)) {
+            items.addAll(archive.findResponsesByStatusIn(statuses));
+        }
+        return items;
     }
 
+    // Hands every item selected by includeDone to the sink in id order while the rows are
+    // still being read; nothing is kept once handed over, so memory stays flat. Each status
+    // is read in id order from its own index range and the streams are merged.
+    @Transactional(readOnly = true)
+    public void export(boolean includeDone, Consumer<TodoResponse> sink) {
+        List<TodoStatus> statuses = resolveStatuses(null, includeDone);
+        List<Stream<TodoResponse>> streams = new ArrayList<>();
+        try {
+            for (TodoStatus status : statuses) {
+                streams.add(repository.streamResponsesByStatus(status));
+            }
+            for (TodoStatus status : archivedOf(statuses)) {
+                streams.add(archive.streamResponsesByStatus(status));
+            }
+            new MergedById(streams.stream().map(Stream::iterator).toList()).forEachRemaining(sink);
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
+
+    // Keyset page over (dueTime, id): cost is bounded by the page size, not the table size,
+    // however deep the cursor (see dueRuns). Null arguments mean "no restriction"; statuses
+    // fall back to the includeDone default.
+    @Transactional(readOnly = true)
+    public TodoPage getPage(List<TodoStatus> statuses,
+                            boolean includeDone,
+                            LocalDateTime dueFrom,
+                            LocalDateTime dueTo,
+                            String cursor,
+                            Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime from = dueFrom != null ? dueFrom : MIN_DUE_TIME;
+        LocalDateTime to = dueTo != null ? dueTo : MAX_DUE_TIME;
+
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("dueFrom must be before dueTo");
+        }
+
+        // Without a cursor, start just before the first item of the window
+        TodoCursor after = cursor != null ? TodoCursor.decode(cursor) : new TodoCursor(from, 0L);
+        return keysetPage(dueRuns(resolveStatuses(statuses, includeDone), from, to, after, pageSize), pageSize);
+    }
+
+    // Items due in [dueFrom, dueTo) with the given statuses (default NOT_DONE), ordered by
+    // (dueTime, id) and paged with the same cursors as getPage; dueFrom defaults to now.
+    @Transactional(readOnly = true)
+    public TodoPage getDue(List<TodoStatus> statuses,
+                           LocalDateTime dueFrom,
+                           LocalDateTime dueTo,
+                           String cursor,
+                           Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime from = dueFrom != null ? dueFrom : LocalDateTime.now();
+        if (dueTo == null || !from.isBefore(dueTo)) {
+            throw new IllegalArgumentException("dueFrom must be before dueTo");
+        }
+
+        TodoCursor after = cursor != null ? TodoCursor.decode(cursor) : new TodoCursor(from, 0L);
+        List<TodoStatus> wanted = statuses != null && !statuses.isEmpty() ? statuses : List.of(TodoStatus.NOT_DONE);
+        return keysetPage(dueRuns(wanted, from, dueTo, after, pageSize), pageSize);
+    }
+
+    // Ranked page of items whose description has a word starting with each query word, from
+    // the in-memory index. The cursor is the offset into the ranking. While the index is
+    // unavailable, falls back to a database scan for the query text, in id order.
+    @Transactional(readOnly = true)
+    public TodoPage search(String query,
+                           List<TodoStatus> statuses,
+                           boolean includeDone,
+                           String cursor,
+                           Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        int pageSize = resolvePageSize(limit);
+        int offset = cursor != null ? decodeOffset(cursor, pageSize) : 0;
+        List<TodoStatus> wanted = resolveStatuses(statuses, includeDone);
+
+        Optional<SearchResult> hits = searchIndex.search(query, wanted, offset, pageSize);
+        SearchResult result = hits.isPresent() ? hits.get() : scanDescriptions(query, wanted, offset, pageSize);
+
+        // The rows decide the status; the index may briefly lag a commit
+        Map<Long, TodoResponse> rows = repository.findResponsesByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(TodoResponse::getId, Function.identity()));
+        if (rows.size() < result.ids().size() && coversArchive(wanted)) {
+            archive.findResponsesByIdIn(result.ids()).forEach(row -> rows.put(row.getId(), row));
+        }
+        List<TodoResponse> items = result.ids().stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .filter(item -> wanted.contains(item.getStatus()))
+                .toList();
+        return new TodoPage(items, result.more() ? String.valueOf(offset + pageSize) : null);
+    }
+
+    // Archived items come back as detached entities
     public TodoItem getById(Long id) {
         return repository.findById(id)
+                .or(() -> archive.findById(id).map(ArchivedTodoItem::toItem))
                 .orElseThrow(() -> new NoSuchElementException("Todo item not found: " + id));
     }
 
+    // Snapshot for reads, served from the cache when possible; misses are projected
+    // straight from the row without loading the entity, from the archive if not in todo_items
+    public TodoResponse getResponseById(Long id) {
+        return cache.get(id, key -> repository.findResponseById(key)
+                .or(() -> archive.findResponseById(key))
+                .orElseThrow(() -> new NoSuchElementException("Todo item not found: " + key)));
+    }
+
     public TodoItem updateDueTime(Long id, LocalDateTime newDueTime) {
-        TodoItem item = getById(id);
-        ensureNotPastDue(item);
+        return update(id, null, newDueTime);
+    }
 
-        if (item.getStatus() != TodoStatus.NOT_DONE) {
-            throw new IllegalStateException("Due time can only be changed when item is NOT_DONE");
-        }
+    public TodoItem updateDescription(Long id, String newDescription) {
+        return update(id, newDescription, null);
+    }
 
-        if (newDueTime.isBefore(LocalDateTime.now())) {
+    // Applies description and/or due time (null = unchanged) with one conditional UPDATE.
+    // The entity is not loaded up front; when no row matches, the status tells
+    // "not found" apart from "wrong state". The response needs the fields the UPDATE does not
+    // return (status, creation time, new version), so a successful change costs a second
+    // statement: the primary-key read that follows it in the same transaction.
+    public TodoItem update(Long id, String newDescription, LocalDateTime newDueTime) {
+        if (newDescription != null && newDescription.isBlank()) {
+            throw new IllegalArgumentException("Description must not be empty");
+        }
+        if (newDueTime != null && newDueTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Due time must be in the future");
         }
 
-        item.setDueTime(newDueTime);
-        return repository.save(item);
+        return writes.execute(() -> {
+            if ((newDescription != null || newDueTime != null)
+                    && repository.updateDetails(id, newDescription, newDueTime) == 0) {
+                throw rejectedUpdate(id);
+            }
+
+            TodoItem item = getById(id);
+            return published(item.getStatus(), item);
+        });
     }
 
-    public TodoItem updateDescription(Long id, String newDescription) {
-        TodoItem item = getById(id);
-        ensureNotPastDue(item);
+    public TodoItem markDone(Long id) {
+        return writes.execute(() -> transition(id, TodoStatus.DONE));
+    }
 
-        if (newDescription == null || newDescription.isBlank()) {
-            throw new IllegalArgumentException("Description must not be empty");
+    public TodoItem markNotDone(Long id) {
+        return writes.execute(() -> transition(id, TodoStatus.NOT_DONE));
+    }
+
+    // Moves the item to the target status with an UPDATE conditional on the (status, version)
+    // just read, so a concurrent change (e.g. the sweep setting PAST_DUE) is never overwritten.
+    // Losing the race re-reads and retries; that is safe because the target does not depend on
+    // the previous state and the past-due guard is checked again. Persistent contention is a 409.
+    private TodoItem transition(Long id, TodoStatus target) {
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+            TodoState current = repository.findStateById(id)
+                    .orElseThrow(() -> missing(id));
+            if (current.status() == TodoStatus.PAST_DUE) {
+                throw new IllegalStateException("Cannot modify a past-due item");
+            }
+
+            LocalDateTime completionTime = target == TodoStatus.DONE ? LocalDateTime.now() : null;
+            if (repository.transition(id, current.status(), current.version(), target, completionTime) == 1) {
+                return published(current.status(), getById(id));
+            }
         }
+        throw new IllegalStateException("Todo item " + id + " was modified concurrently, please retry");
+    }
 
-        item.setDescription(newDescription);
-        return repository.save(item);
+    private TodoItem published(TodoStatus previousStatus, TodoItem saved) {
+        publisher.publishEvent(new TodoItemChangedEvent(previousStatus, TodoResponse.fromEntity(saved)));
+        return saved;
     }
 
-    public TodoItem markDone(Long id) {
-        TodoItem item = getById(id);
-        ensureNotPastDue(item);
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
 
-        item.setStatus(TodoStatus.DONE);
-        item.setCompletionTime(LocalDateTime.now());
+    private SearchResult scanDescriptions(String query, List<TodoStatus> statuses, int offset, int pageSize) {
+        String pattern = "%" + query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        // the first ids of each status and of the archive, merged; fewer than that many overall
+        // can be on this page
+        int wanted = offset + pageSize + 1;
+        List<Long> ids = new ArrayList<>();
+        for (TodoStatus status : EnumSet.copyOf(statuses)) {
+            ids.addAll(repository.findIdsByStatusAndDescriptionLike(status, pattern, Limit.of(wanted)));
+        }
+        for (TodoStatus status : archivedOf(EnumSet.copyOf(statuses))) {
+            ids.addAll(archive.findIdsByStatusAndDescriptionLike(status, pattern, Limit.of(wanted)));
+        }
+        ids = ids.stream().sorted().limit(wanted).toList();
+        List<Long> page = ids.subList(Math.min(offset, ids.size()), Math.min(offset + pageSize, ids.size()));
+        return new SearchResult(page, ids.size() > offset + pageSize);
+    }
 
-        return repository.save(item);
+    private static int decodeOffset(String cursor, int pageSize) {
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset >= 0 && offset <= Integer.MAX_VALUE - pageSize - 1) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
     }
 
-    public TodoItem markNotDone(Long id) {
-        TodoItem item = getById(id);
-        ensureNotPastDue(item);
+    // The first pageSize + 1 items with the given statuses due in [from, to) after the cursor,
+    // in (dueTime, id) order. Each status is one ordered range scan of the status index that
+    // seeks straight to the cursor and stops after a page, plus one of the archive's for the
+    // archived statuses. The runs are merged, never sorted.
+    private List<TodoResponse> dueRuns(List<TodoStatus> statuses,
+                                       LocalDateTime from,
+                                       LocalDateTime to,
+                                       TodoCursor after,
+                                       int pageSize) {
+        LocalDateTime start = after.dueTime().isAfter(from) ? after.dueTime() : from;
+        Limit rowLimit = Limit.of(pageSize + 1);
 
-        item.setStatus(TodoStatus.NOT_DONE);
-        item.setCompletionTime(null);
+        EnumSet<TodoStatus> wanted = EnumSet.copyOf(statuses);
+        List<List<TodoResponse>> runs = new ArrayList<>();
+        for (TodoStatus status : wanted) {
+            runs.add(repository.findDue(status, start, to, after.dueTime(), after.id(), rowLimit));
+        }
+        // ids are unique across both tables
+        for (TodoStatus status : archivedOf(wanted)) {
+            runs.add(archive.findDue(status, start, to, after.dueTime(), after.id(), rowLimit));
+        }
+        return mergeByDueTime(runs, pageSize + 1);
+    }
+
+    // rows holds up to one item more than the page, which only tells that another page exists
+    private static TodoPage keysetPage(List<TodoResponse> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TodoPage(rows, null);
+        }
+
+        List<TodoResponse> items = rows.subList(0, pageSize);
+        TodoResponse last = items.get(pageSize - 1);
+        return new TodoPage(items, new TodoCursor(last.getDueTime(), last.getId()).encode());
+    }
+
+    // The first limit items of lists that are each in (dueTime, id) order
+    private static List<TodoResponse> mergeByDueTime(List<List<TodoResponse>> runs, int limit) {
+        List<TodoResponse> merged = new ArrayList<>(limit);
+        int[] next = new int[runs.size()];
+        while (merged.size() < limit) {
+            int smallest = -1;
+            for (int i = 0; i < runs.size(); i++) {
+                if (next[i] < runs.get(i).size() && (smallest < 0
+                        || PAGE_ORDER.compare(runs.get(i).get(next[i]), runs.get(smallest).get(next[smallest])) < 0)) {
+                    smallest = i;
+                }
+            }
+            if (smallest < 0) {
+                break;
+            }
+            merged.add(runs.get(smallest).get(next[smallest]++));
+        }
+        return merged;
+    }
 
-        return repository.save(item);
+    private List<TodoStatus> resolveStatuses(List<TodoStatus> statuses, boolean includeDone) {
+        if (statuses != null && !statuses.isEmpty()) {
+            return statuses;
+        }
+        if (includeDone) {
+            return List.of(TodoStatus.values());
+        }
+        return List.of(TodoStatus.NOT_DONE, TodoStatus.PAST_DUE);
+    }
+
+    private RuntimeException rejectedUpdate(Long id) {
+        TodoStatus status = repository.findStatusById(id)
+                .orElseThrow(() -> missing(id));
+
+        if (status == TodoStatus.PAST_DUE) {
+            return new IllegalStateException("Cannot modify a past-due item");
+        }
+        return new IllegalStateException("Due time can only be changed when item is NOT_DONE");
     }
 
-    private void ensureNotPastDue(TodoItem item) {
-        if (item.getStatus() == TodoStatus.PAST_DUE) {
-            throw new IllegalStateException("Cannot modify a past-due item");
+    // Write to an item that is not in todo_items
+    private RuntimeException missing(Long id) {
+        if (archive.existsById(id)) {
+            return new IllegalStateException("Cannot modify an archived item");
         }
+        return new NoSuchElementException("Todo item not found: " + id);
     }
 
+    private static boolean coversArchive(List<TodoStatus> statuses) {
+        return statuses.stream().anyMatch(ARCHIVED_STATUSES::contains);
+    }
+
+    private static List<TodoStatus> archivedOf(Collection<TodoStatus> statuses) {
+        return statuses.stream().filter(ARCHIVED_STATUSES::contains).toList();
+    }
 }
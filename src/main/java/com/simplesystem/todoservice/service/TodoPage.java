@@ -0,0 +1,9 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+
+import java.util.List;
+
+// One keyset page of items; next is null on the last page
+public record TodoPage(List<TodoResponse> items, String next) {
+}
@@ -0,0 +1,120 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.dto.TodoSummaryResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.event.TodoItemsPastDueEvent;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoStatusCount;
+import com.simplesystem.todoservice.scheduler.TodoDueTimeTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Item counts per status kept in memory, so GET /todos/summary never queries the table.
+// Every committed transition adjusts them; the scheduled reconcile, which also seeds them
+// at startup, corrects drift from writes that bypass the service (or race a reconcile).
+// Other instances' writes are such writes, so when several share the database
+// (todo.pastdue.partitioning.enabled) the summary counts in the database instead and the
+// counters, behind the todo.items gauges, are only as fresh as the last reconcile.
+@Component
+public class TodoStatusCounters {
+
+    static final Duration DUE_SOON = Duration.ofHours(1);
+
+    private final TodoItemRepository repository;
+    private final ArchivedTodoItemRepository archive;
+    private final TodoDueTimeTracker tracker;
+    private final boolean sharedDatabase;
+    private final Map<TodoStatus, LongAdder> counts = new EnumMap<>(TodoStatus.class);
+
+    public TodoStatusCounters(TodoItemRepository repository,
+                              ArchivedTodoItemRepository archive,
+                              TodoDueTimeTracker tracker,
+                              @Value("${todo.pastdue.partitioning.enabled}") boolean sharedDatabase) {
+        this.repository = repository;
+        this.archive = archive;
+        this.tracker = tracker;
+        this.sharedDatabase = sharedDatabase;
+        for (TodoStatus status : TodoStatus.values()) {
+            counts.put(status, new LongAdder());
+        }
+    }
+
+    public long count(TodoStatus status) {
+        return counts.get(status).sum();
+    }
+
+    // Counts per status plus open items due within the next hour. The latter comes from the
+    // due-time heap; with the timer disabled, or holding only this instance's sweep partitions,
+    // it falls back to an index range count.
+    public TodoSummaryResponse summary() {
+        Map<TodoStatus, Long> snapshot;
+        if (sharedDatabase) {
+            snapshot = countInDatabase();
+        } else {
+            snapshot = new EnumMap<>(TodoStatus.class);
+            counts.forEach((status, count) -> snapshot.put(status, count.sum()));
+        }
+
+        LocalDateTime dueBy = LocalDateTime.now().plus(DUE_SOON);
+        long dueSoon = tracker.tracksAllItems()
+                ? tracker.countDueBefore(dueBy)
+                : repository.countByStatusAndDueTimeBefore(TodoStatus.NOT_DONE, dueBy);
+
+        return TodoSummaryResponse.of(snapshot, dueSoon);
+    }
+
+    // Each counter is moved by the difference between the database count and the value it had
+    // before the query, so events applied while the query and this update run are kept. An
+    // event whose commit the query already saw but which is applied after the snapshot counts
+    // twice; the next pass corrects that.
+    @Scheduled(fixedRateString = "${todo.summary.reconcile-rate-ms}")
+    public void reconcile() {
+        Map<TodoStatus, Long> before = new EnumMap<>(TodoStatus.class);
+        counts.forEach((status, count) -> before.put(status, count.sum()));
+
+        Map<TodoStatus, Long> actual = countInDatabase();
+        counts.forEach((status, count) -> count.add(actual.get(status) - before.get(status)));
+    }
+
+    // Every status, including those without items; one aggregate query per table
+    private Map<TodoStatus, Long> countInDatabase() {
+        Map<TodoStatus, Long> actual = new EnumMap<>(TodoStatus.class);
+        for (TodoStatus status : TodoStatus.values()) {
+            actual.put(status, 0L);
+        }
+        for (TodoStatusCount row : repository.countGroupedByStatus()) {
+            actual.merge(row.status(), row.count(), Long::sum);
+        }
+        for (TodoStatusCount row : archive.countGroupedByStatus()) {
+            actual.merge(row.status(), row.count(), Long::sum);
+        }
+        return actual;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(TodoItemChangedEvent event) {
+        TodoStatus current = event.item().getStatus();
+        if (event.isCreated()) {
+            counts.get(current).increment();
+        } else if (event.isStatusChanged()) {
+            counts.get(event.previousStatus()).decrement();
+            counts.get(current).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsPastDue(TodoItemsPastDueEvent event) {
+        counts.get(TodoStatus.NOT_DONE).add(-event.ids().size());
+        counts.get(TodoStatus.PAST_DUE).add(event.ids().size());
+    }
+}
@@ -0,0 +1,239 @@
+package com.simplesystem.todoservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs the service's single-item writes. By default each write is its own transaction.
+// With todo.write-behind.enabled, writes are queued instead and one writer thread commits
+// up to todo.write-behind.max-batch of them per transaction (group commit), waiting at most
+// todo.write-behind.max-wait-ms for a batch to fill. The caller still blocks until its own
+// write has committed (or failed), so a returned result is always durable.
+// A full queue rejects the write right away (429 at the API) rather than letting callers pile up,
+// and a caller waits at most todo.write-behind.timeout-ms for its write.
+@Component
+public class TodoWriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoWriteQueue.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final long timeoutMs;
+    private final BlockingQueue<Write<?>> queue;
+    private final Thread writer;
+    private volatile boolean stopped;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitDuration;
+    private final Counter rejected;
+
+    public TodoWriteQueue(TransactionTemplate transactionTemplate,
+                          MeterRegistry registry,
+                          @Value("${todo.write-behind.enabled}") boolean enabled,
+                          @Value("${todo.write-behind.queue-capacity}") int queueCapacity,
+                          @Value("${todo.write-behind.max-batch}") int maxBatch,
+                          @Value("${todo.write-behind.max-wait-ms}") long maxWaitMs,
+                          @Value("${todo.write-behind.timeout-ms}") long timeoutMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.timeoutMs = timeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSize = DistributionSummary.builder("todo.writes.batch")
+                .description("Writes committed per group-commit transaction")
+                .baseUnit("writes")
+                .register(registry);
+        this.commitDuration = Timer.builder("todo.writes.commit")
+                .description("Duration of a group-commit transaction")
+                .register(registry);
+        this.rejected = Counter.builder("todo.writes.rejected")
+                .description("Writes rejected because the write queue was full")
+                .register(registry);
+        Gauge.builder("todo.writes.queued", queue, BlockingQueue::size)
+                .description("Writes waiting for the group-commit writer")
+                .register(registry);
+
+        this.writer = enabled ? Thread.ofPlatform().name("todo-write-behind").daemon().start(this::run) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs the write in a transaction and returns its result once committed; exceptions
+    // thrown by the write reach the caller unchanged. A write must throw before it changes
+    // anything: in a group commit the other writes of the batch still commit. It may also run
+    // twice (alone, after its batch rolled back), so it must not hold on to state from a
+    // previous attempt, such as an entity instance.
+    // A write still queued at the timeout is taken back and rejected; one already being
+    // committed ends in TransactionTimedOutException, as its outcome is not known yet.
+    public <T> T execute(Supplier<T> write) {
+        if (!enabled) {
+            return transactionTemplate.execute(status -> write.get());
+        }
+
+        Write<T> queued = new Write<>(write);
+        if (stopped || !queue.offer(queued)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many pending writes, please retry");
+        }
+        // a write queued while stopping is either taken back here or finished by stop()
+        if (stopped && queue.remove(queued)) {
+            throw new RejectedExecutionException("Shutting down");
+        }
+
+        try {
+            return queued.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(queued)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Write queue is backed up, please retry");
+            }
+            throw new TransactionTimedOutException("Write did not complete within " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(queued);
+            throw new RejectedExecutionException("Interrupted while waiting for the write", e);
+        }
+    }
+
+    // Commits what is already queued, then fails whatever arrives later
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        if (writer != null) {
+            writer.join();
+        }
+        Write<?> left;
+        while ((left = queue.poll()) != null) {
+            left.result.completeExceptionally(new RejectedExecutionException("Shutting down"));
+        }
+    }
+
+    // Anything a batch throws fails that batch's callers; the writer itself keeps going, since
+    // every later write would otherwise wait for a thread that is gone
+    private void run() {
+        List<Write<?>> batch = new ArrayList<>(maxBatch);
+        while (!stopped || !queue.isEmpty()) {
+            try {
+                Write<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(write -> write.result.completeExceptionally(new RejectedExecutionException("Shutting down")));
+                return;
+            } catch (Throwable e) {
+                log.error("Group commit of {} writes failed", batch.size(), e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Takes whatever else is queued, waiting up to max-wait for the batch to fill
+    private void fill(List<Write<?>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatch || remaining <= 0) {
+                return;
+            }
+            Write<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Write<?>> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(Write::apply));
+        } catch (RuntimeException e) {
+            // the whole batch rolled back (e.g. a constraint violation at flush); retry each
+            // write on its own so only the offending one fails
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        commitDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        batch.forEach(Write::complete);
+    }
+
+    private <T> void commitAlone(Write<T> write) {
+        try {
+            write.result.complete(transactionTemplate.execute(status -> write.operation.get()));
+        } catch (RuntimeException e) {
+            write.result.completeExceptionally(e);
+        }
+    }
+
+    // One queued write; its outcome is held until the batch has committed
+    private static final class Write<T> {
+
+        private final Supplier<T> operation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException failure;
+
+        Write(Supplier<T> operation) {
+            this.operation = operation;
+        }
+
+        void apply() {
+            try {
+                value = operation.get();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+-- Schema for the durable profile; matches the TodoItem mapping, which Hibernate validates at startup.
+-- Every statement is idempotent, so it runs on each start against an existing database.
+create sequence if not exists todo_items_seq start with 1 increment by 50;
+
+create table if not exists todo_items (
+    id bigint not null,
+    description varchar(255) not null,
+    status varchar(255) not null check (status in ('NOT_DONE', 'DONE', 'PAST_DUE')),
+    creation_time timestamp(9) not null,
+    due_time timestamp(9) not null,
+    completion_time timestamp(9),
+    version bigint not null,
+    primary key (id)
+);
+
+-- Status filters, the past-due sweep (status = ? and due_time < ?) and GET /todos/due, whose
+-- (due_time, id) order the index returns without a sort
+create index if not exists idx_todo_items_status_due_time_id on todo_items (status, due_time, id);
+-- Keyset paging order for GET /todos
+create index if not exists idx_todo_items_due_time_id on todo_items (due_time, id);
+-- Exports and the search fallback, one status at a time in id order
+create index if not exists idx_todo_items_status_id on todo_items (status, id);
+-- Archival of DONE items by completion time (PAST_DUE items go by the status/due-time index)
+create index if not exists idx_todo_items_status_completion_time on todo_items (status, completion_time);
+
+-- DONE and PAST_DUE items past todo.archive.retention-days, moved out of todo_items
+create table if not exists todo_items_archive (
+    id bigint not null,
+    description varchar(255) not null,
+    status varchar(255) not null check (status in ('NOT_DONE', 'DONE', 'PAST_DUE')),
+    creation_time timestamp(9) not null,
+    due_time timestamp(9) not null,
+    completion_time timestamp(9),
+    version bigint not null,
+    archived_at timestamp(9) not null,
+    primary key (id)
+);
+
+create index if not exists idx_todo_items_archive_status_due_time_id on todo_items_archive (status, due_time, id);
+create index if not exists idx_todo_items_archive_status_id on todo_items_archive (status, id);
+
+-- Past-due sweep coordination between instances (todo.pastdue.partitioning.enabled)
+create table if not exists todo_sweep_leases (
+    partition_no integer not null,
+    owner varchar(64),
+    expires_at timestamp(9) not null,
+    primary key (partition_no)
+);
+
+create table if not exists todo_sweep_nodes (
+    node_id varchar(64) not null,
+    expires_at timestamp(9) not null,
+    primary key (node_id)
+);
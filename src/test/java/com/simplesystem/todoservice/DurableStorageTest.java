@@ -0,0 +1,47 @@
+package com.simplesystem.todoservice;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.service.TodoItemService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The durable profile keeps items, their versions and the id sequence across a restart
+class DurableStorageTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void itemsSurviveRestart() {
+        TodoItem created;
+        TodoItem done;
+        try (ConfigurableApplicationContext context = start()) {
+            TodoItemService service = context.getBean(TodoItemService.class);
+            created = service.create("Survive the restart", LocalDateTime.now().plusDays(1));
+            done = service.markDone(service.create("Done before restart", LocalDateTime.now().plusDays(1)).getId());
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            TodoItemService service = context.getBean(TodoItemService.class);
+            assertThat(service.getResponseById(created.getId()).getDescription()).isEqualTo("Survive the restart");
+            assertThat(service.getResponseById(done.getId()).getVersion()).isEqualTo(done.getVersion());
+            assertThat(service.create("After restart", LocalDateTime.now().plusDays(1)).getId())
+                    .isGreaterThan(done.getId());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodoserviceApplication.class)
+                .profiles("durable")
+                .web(WebApplicationType.NONE)
+                .run("--todo.data-dir=" + dataDir, "--spring.jpa.show-sql=false");
+    }
+}
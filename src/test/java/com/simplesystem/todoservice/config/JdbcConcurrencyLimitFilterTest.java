@@ -0,0 +1,91 @@
+package com.simplesystem.todoservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcConcurrencyLimitFilterTest {
+
+    @Test
+    void passesRequestsThroughAndReleasesPermit() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, 50, Set.of("/todos/events"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/todos"), response, (req, res) -> { });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWith503WhenNoPermitFreesUpInTime() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, 50, Set.of("/todos/events"));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/todos"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            inside.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/todos"), rejected, (req, res) -> { });
+
+        release.countDown();
+        holder.join();
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncRequestKeepsPermitUntilCompletion() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, 50, Set.of("/todos/events"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todos/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(filter.availablePermits()).isZero();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/todos"), rejected, (req, res) -> { });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void excludedPathsBypassTheLimit() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, 50, Set.of("/todos/events"));
+        CountDownLatch inside = new CountDownLatch(1);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/todos/events"), response, (req, res) -> {
+            inside.countDown();
+            assertThat(filter.availablePermits()).isEqualTo(1);
+        });
+
+        assertThat(inside.getCount()).isZero();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+}
@@ -1,28 +1,51 @@
 package com.simplesystem.todoservice.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesystem.todoservice.config.BinaryFormatConfig;
 import com.simplesystem.todoservice.dto.CreateTodoRequest;
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.dto.TodoSummaryResponse;
 import com.simplesystem.todoservice.dto.UpdateTodoRequest;
+import com.simplesystem.todoservice.feed.TodoEventFeed;
 import com.simplesystem.todoservice.model.TodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.service.TodoChangeCounter;
 import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import com.simplesystem.todoservice.service.TodoStatusCounters;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TodoItemController.class)
+@Import(BinaryFormatConfig.class)
 public class TodoItemControllerTest {
 
     @Autowired
@@ -31,9 +54,24 @@ public class TodoItemControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
     @MockBean
     private TodoItemService service;
 
+    @MockBean
+    private TodoEventFeed feed;
+
+    @MockBean
+    private TodoChangeCounter changes;
+
+    @MockBean
+    private TodoStatusCounters counters;
+
     private TodoItem sampleTodo(Long id, TodoStatus status) {
         TodoItem item = TodoItem.create(
                 "Test task",
@@ -64,35 +102,301 @@ public class TodoItemControllerTest {
                 .andExpect(jsonPath("$.status").value("NOT_DONE"));
     }
 
+    // test create while the write queue is full
+    @Test
+    void createTodo_tooManyPendingWrites() throws Exception {
+        when(service.create(any(), any())).thenThrow(new RejectedExecutionException("Too many pending writes, please retry"));
+
+        CreateTodoRequest req = new CreateTodoRequest();
+        req.setDescription("Test task");
+        req.setDueTime(LocalDateTime.now().plusMinutes(10));
+
+        mockMvc.perform(post("/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    // test batch create
+    @Test
+    void createTodoBatch() throws Exception {
+        when(service.createAll(any()))
+                .thenReturn(List.of(sampleTodo(1L, TodoStatus.NOT_DONE), sampleTodo(2L, TodoStatus.NOT_DONE)));
+
+        CreateTodoRequest req = new CreateTodoRequest();
+        req.setDescription("Test task");
+        req.setDueTime(LocalDateTime.now().plusMinutes(10));
+
+        mockMvc.perform(post("/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(req, req))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[1].id").value(2L));
+    }
+
+    // test batch create with an invalid item
+    @Test
+    void createTodoBatch_invalidItem() throws Exception {
+        when(service.createAll(any()))
+                .thenThrow(new IllegalArgumentException("Item 0: Description must not be empty"));
+
+        mockMvc.perform(post("/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\": \"\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Item 0: Description must not be empty"));
+    }
+
     // test getAll
     @Test
     void getAllTodos() throws Exception {
-        when(service.getAll(false))
-                .thenReturn(List.of(sampleTodo(1L, TodoStatus.NOT_DONE)));
+        when(service.getPage(any(), eq(false), any(), any(), any(), any()))
+                .thenReturn(new TodoPage(List.of(TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE))), "next-cursor"));
 
         mockMvc.perform(get("/todos"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    // test getAll with filters passed through to the service
+    @Test
+    void getAllTodos_withFilters() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(service.getPage(eq(List.of(TodoStatus.DONE)), eq(false), eq(from), any(), eq("abc"), eq(10)))
+                .thenReturn(new TodoPage(List.of(TodoResponse.fromEntity(sampleTodo(2L, TodoStatus.DONE))), null));
+
+        mockMvc.perform(get("/todos")
+                        .param("status", "DONE")
+                        .param("dueFrom", "2030-01-01T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    // test list ETag: an unchanged collection is answered without querying
+    @Test
+    void getAllTodos_notModifiedWhileNothingChanged() throws Exception {
+        when(changes.isAvailable()).thenReturn(true);
+        when(changes.current()).thenReturn("abc-7");
+        when(service.getPage(any(), eq(false), any(), any(), any(), any()))
+                .thenReturn(new TodoPage(List.of(), null));
+
+        mockMvc.perform(get("/todos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(header().string("Vary", "Accept"));
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+
+        when(changes.current()).thenReturn("abc-8");
+        mockMvc.perform(get("/todos").header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc-8\""));
+
+        verify(service, times(2)).getPage(any(), eq(false), any(), any(), any(), any());
+    }
+
+    // test no list ETag when the counter cannot see other instances' writes
+    @Test
+    void getAllTodos_noETagWithoutChangeCounter() throws Exception {
+        when(changes.isAvailable()).thenReturn(false);
+        when(service.getPage(any(), eq(false), any(), any(), any(), any()))
+                .thenReturn(new TodoPage(List.of(), null));
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    // test unbounded listing opt-in
+    @Test
+    void getAllTodos_unpaged() throws Exception {
+        when(service.getAll(true))
+                .thenReturn(List.of(
+                        TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE)),
+                        TodoResponse.fromEntity(sampleTodo(2L, TodoStatus.DONE))));
+
+        mockMvc.perform(get("/todos").param("unpaged", "true").param("includeDone", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].status").value("DONE"));
+    }
+
+    // test due window
+    @Test
+    void dueTodos() throws Exception {
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 1, 0);
+        when(service.getDue(eq(List.of(TodoStatus.NOT_DONE)), isNull(), eq(to), isNull(), eq(5)))
+                .thenReturn(new TodoPage(List.of(TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE))), "next-cursor"));
+
+        mockMvc.perform(get("/todos/due")
+                        .param("to", "2030-01-01T01:00:00")
+                        .param("status", "NOT_DONE")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    // test due window without its end
+    @Test
+    void dueTodos_requiresTo() throws Exception {
+        mockMvc.perform(get("/todos/due"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // test search
+    @Test
+    void searchTodos() throws Exception {
+        when(service.search(eq("milk"), isNull(), eq(false), isNull(), eq(1)))
+                .thenReturn(new TodoPage(List.of(TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE))), "1"));
+
+        mockMvc.perform(get("/todos/search").param("q", "milk").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.next").value("1"));
+    }
+
+    // test change feed subscription
+    @Test
+    void subscribeToEvents() throws Exception {
+        when(feed.subscribe("abc-7")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/todos/events").header("Last-Event-ID", "abc-7"))
+                .andExpect(request().asyncStarted());
+
+        verify(feed).subscribe("abc-7");
+    }
+
+    // test summary
+    @Test
+    void getSummary() throws Exception {
+        when(counters.summary()).thenReturn(TodoSummaryResponse.of(
+                Map.of(TodoStatus.NOT_DONE, 3L, TodoStatus.DONE, 2L, TodoStatus.PAST_DUE, 1L), 2));
+
+        mockMvc.perform(get("/todos/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.NOT_DONE").value(3))
+                .andExpect(jsonPath("$.counts.PAST_DUE").value(1))
+                .andExpect(jsonPath("$.dueInNextHour").value(2));
+    }
+
+    // test streaming export
+    @Test
+    void exportTodos() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TodoResponse> sink = invocation.getArgument(1);
+            sink.accept(TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE)));
+            sink.accept(TodoResponse.fromEntity(sampleTodo(2L, TodoStatus.DONE)));
+            return null;
+        }).when(service).export(eq(true), any());
+
+        MvcResult started = mockMvc.perform(get("/todos/export").param("includeDone", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).get("id").asLong()).isEqualTo(1L);
+        assertThat(objectMapper.readTree(lines.get(1)).get("status").asText()).isEqualTo("DONE");
+    }
+
+    // test export as a CBOR sequence
+    @Test
+    void exportTodos_cbor() throws Exception {
+        TodoResponse first = TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE));
+        TodoResponse second = TodoResponse.fromEntity(sampleTodo(2L, TodoStatus.DONE));
+        doAnswer(invocation -> {
+            Consumer<TodoResponse> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(service).export(eq(false), any());
+
+        MvcResult started = mockMvc.perform(get("/todos/export").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (MappingIterator<TodoResponse> items = cborConverter.getObjectMapper()
+                .readerFor(TodoResponse.class).readValues(body)) {
+            assertThat(items.readAll()).containsExactly(first, second);
+        }
+    }
+
+    // test getById as Smile, timestamps kept to the nanosecond
+    @Test
+    void getOneTodo_smile() throws Exception {
+        TodoResponse item = TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE));
+        when(service.getResponseById(1L)).thenReturn(item);
+
+        byte[] body = mockMvc.perform(get("/todos/1").accept(BinaryFormatConfig.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatConfig.SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smileConverter.getObjectMapper().readValue(body, TodoResponse.class)).isEqualTo(item);
+        assertThat(body.length).isLessThan(objectMapper.writeValueAsBytes(item).length);
     }
 
     // test getById
     @Test
     void getOneTodo() throws Exception {
-        when(service.getById(1L))
-                .thenReturn(sampleTodo(1L, TodoStatus.NOT_DONE));
+        when(service.getResponseById(1L))
+                .thenReturn(TodoResponse.fromEntity(sampleTodo(1L, TodoStatus.NOT_DONE)));
 
         mockMvc.perform(get("/todos/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    // test item ETag follows the version
+    @Test
+    void getOneTodo_notModifiedUntilVersionChanges() throws Exception {
+        TodoItem item = sampleTodo(1L, TodoStatus.NOT_DONE);
+        when(service.getResponseById(1L)).thenReturn(TodoResponse.fromEntity(item));
+
+        String etag = mockMvc.perform(get("/todos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/\"")))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/todos/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        item.setVersion(1);
+        when(service.getResponseById(1L)).thenReturn(TodoResponse.fromEntity(item));
+        mockMvc.perform(get("/todos/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
     // test updateDescription
     @Test
     void updateTodo() throws Exception {
         TodoItem updated = sampleTodo(1L, TodoStatus.NOT_DONE);
         updated.setDescription("Updated");
 
-        when(service.updateDescription(eq(1L), any())).thenReturn(updated);
+        when(service.update(eq(1L), eq("Updated"), isNull())).thenReturn(updated);
 
         UpdateTodoRequest req = new UpdateTodoRequest();
         req.setDescription("Updated");
@@ -0,0 +1,117 @@
+package com.simplesystem.todoservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.simplesystem.todoservice.config.BinaryFormatConfig;
+import com.simplesystem.todoservice.model.TodoStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoResponseSerializerTest {
+
+    private static final List<TodoResponse> SAMPLES = List.of(
+            item(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_789), null),
+            item(LocalDateTime.of(2030, 12, 31, 23, 59, 59, 120_000_000), LocalDateTime.of(2030, 1, 1, 0, 0)),
+            item(LocalDateTime.of(2030, 6, 15, 12, 30, 0, 1_000), LocalDateTime.of(2030, 6, 15, 12, 30, 7)),
+            item(LocalDateTime.of(1, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999)),
+            item(LocalDateTime.of(10_000, 1, 1, 0, 0, 0, 5), null),
+            new TodoResponse(null, null, null, null, null, null, 0),
+            new TodoResponse(0L, "", TodoStatus.NOT_DONE, null, null, null, 0)
+    );
+
+    @Test
+    void matchesBeanSerializerForJson() throws Exception {
+        assertSameOutput(bootBuilder().build());
+    }
+
+    @Test
+    void matchesBeanSerializerForTimestampArraysAndMillis() throws Exception {
+        assertSameOutput(Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build());
+    }
+
+    @Test
+    void matchesBeanSerializerForBinaryFormats() throws Exception {
+        BinaryFormatConfig config = new BinaryFormatConfig();
+        assertSameOutput(config.smileHttpMessageConverter(bootBuilder()).getObjectMapper());
+        assertSameOutput(config.cborHttpMessageConverter(bootBuilder()).getObjectMapper());
+    }
+
+    @Test
+    void matchesBeanSerializerForEveryDefaultInclusion() throws Exception {
+        for (JsonInclude.Include inclusion : JsonInclude.Include.values()) {
+            if (inclusion != JsonInclude.Include.CUSTOM) {
+                assertSameOutput(bootBuilder().serializationInclusion(inclusion).build());
+            }
+        }
+        ObjectMapper custom = bootBuilder().build();
+        custom.setDefaultPropertyInclusion(JsonInclude.Value.construct(
+                JsonInclude.Include.CUSTOM, JsonInclude.Include.ALWAYS, ZeroOrEmpty.class, null));
+        assertSameOutput(custom);
+    }
+
+    @Test
+    void formatIso_matchesIsoLocalDateTime() {
+        char[] buffer = new char[29];
+        for (TodoResponse sample : SAMPLES) {
+            LocalDateTime value = sample.getCreationTime();
+            if (value == null || value.getYear() > 9999) {
+                continue;
+            }
+            int length = TodoResponseSerializer.formatIso(value, buffer);
+            assertThat(new String(buffer, 0, length)).isEqualTo(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+
+    private static void assertSameOutput(ObjectMapper mapper) throws Exception {
+        ObjectMapper beanSerializer = mapper.copy().addMixIn(TodoResponse.class, BeanSerialized.class);
+        assertThat(mapper.getSerializerProviderInstance().findValueSerializer(TodoResponse.class))
+                .isInstanceOf(TodoResponseSerializer.class);
+        assertThat(beanSerializer.getSerializerProviderInstance().findValueSerializer(TodoResponse.class))
+                .isInstanceOf(BeanSerializer.class);
+        for (TodoResponse sample : SAMPLES) {
+            assertThat(mapper.writeValueAsBytes(sample))
+                    .as("%s", sample)
+                    .isEqualTo(beanSerializer.writeValueAsBytes(sample));
+        }
+        assertThat(mapper.writeValueAsBytes(SAMPLES)).isEqualTo(beanSerializer.writeValueAsBytes(SAMPLES));
+    }
+
+    // Spring Boot's defaults; plain Spring leaves WRITE_DATES_AS_TIMESTAMPS on
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static TodoResponse item(LocalDateTime time, LocalDateTime completionTime) {
+        return new TodoResponse(42L, "Write \"tests\" ✓", TodoStatus.DONE, time, time, completionTime, 7);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    // A CUSTOM inclusion filter: leaves out 0 and "", keeps nulls
+    static class ZeroOrEmpty {
+        @Override
+        public boolean equals(Object other) {
+            return other != null && (other.equals(0L) || other.equals(""));
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
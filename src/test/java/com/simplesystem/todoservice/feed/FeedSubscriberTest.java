@@ -0,0 +1,95 @@
+package com.simplesystem.todoservice.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedSubscriberTest {
+
+    // Sender tasks run only when the test says so, standing in for a slow client
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final CapturingEmitter emitter = new CapturingEmitter();
+    private final FeedSubscriber subscriber = new FeedSubscriber(emitter, pending::add, 4);
+
+    @Test
+    void deliversEventsInOrderWithOneSenderTaskAtATime() {
+        subscriber.offer(event(1));
+        subscriber.offer(event(2));
+        assertThat(pending).hasSize(1);
+
+        runPending();
+        subscriber.offer(event(3));
+        runPending();
+
+        assertThat(emitter.sent).containsExactly(
+                "id:i-1|event:created|data:{\"n\":1}",
+                "id:i-2|event:created|data:{\"n\":2}",
+                "id:i-3|event:created|data:{\"n\":3}");
+    }
+
+    @Test
+    void slowSubscriberGetsOneResyncInsteadOfTheDroppedEvents() {
+        for (int n = 1; n <= 7; n++) {
+            subscriber.offer(event(n));
+        }
+        runPending();
+        subscriber.offer(event(8));
+        runPending();
+
+        assertThat(emitter.sent).containsExactly(
+                "id:i-7|event:resync|data:{}",
+                "id:i-8|event:created|data:{\"n\":8}");
+    }
+
+    @Test
+    void keepAliveIsSentOnlyWhenNothingElseIsQueued() {
+        subscriber.offer(FeedEvent.KEEP_ALIVE);
+        subscriber.offer(event(1));
+        subscriber.offer(FeedEvent.KEEP_ALIVE);
+        runPending();
+
+        assertThat(emitter.sent).containsExactly(":keep-alive", "id:i-1|event:created|data:{\"n\":1}");
+    }
+
+    @Test
+    void closedSubscriberReceivesNothing() {
+        subscriber.close();
+        subscriber.offer(event(1));
+        runPending();
+
+        assertThat(emitter.sent).isEmpty();
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+
+    private static FeedEvent event(int n) {
+        return new FeedEvent("i-" + n, "created", "{\"n\":" + n + "}");
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+
+        final List<String> sent = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining())
+                    .trim()
+                    .replace("\n", "|"));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.simplesystem.todoservice.feed;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import com.simplesystem.todoservice.service.TodoItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reads GET /todos/events over a real HTTP connection
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "todo.pastdue.timer.enabled=false")
+public class TodoEventFeedTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    TodoPastDueScheduler scheduler;
+
+    @Autowired
+    TodoEventFeed feed;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<EventStream> streams = new ArrayList<>();
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+    }
+
+    @AfterEach
+    void closeStreams() {
+        streams.forEach(EventStream::close);
+    }
+
+    @Test
+    void streamsEveryKindOfChange() throws Exception {
+        EventStream events = subscribe(null);
+
+        TodoItem item = service.create("Streamed", LocalDateTime.now().plusDays(1));
+        service.updateDescription(item.getId(), "Streamed and renamed");
+        service.markDone(item.getId());
+        TodoItem overdue = repository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(1))
+                .status(TodoStatus.NOT_DONE)
+                .build());
+        scheduler.markPastDueItems();
+
+        Map<String, String> created = events.next();
+        assertThat(created.get("event")).isEqualTo("created");
+        assertThat(created.get("data")).contains("\"description\":\"Streamed\"");
+        assertThat(events.next().get("event")).isEqualTo("updated");
+        Map<String, String> done = events.next();
+        assertThat(done.get("event")).isEqualTo("status-changed");
+        assertThat(done.get("data")).contains("\"status\":\"DONE\"");
+        Map<String, String> pastDue = events.next();
+        assertThat(pastDue.get("event")).isEqualTo("past-due");
+        assertThat(pastDue.get("data")).isEqualTo("{\"id\":" + overdue.getId() + ",\"status\":\"PAST_DUE\"}");
+    }
+
+    @Test
+    void reconnectWithLastEventIdReplaysMissedEvents() throws Exception {
+        EventStream first = subscribe(null);
+        service.create("Seen", LocalDateTime.now().plusDays(1));
+        String lastId = first.next().get("id");
+        first.close();
+
+        service.create("Missed 1", LocalDateTime.now().plusDays(1));
+        service.create("Missed 2", LocalDateTime.now().plusDays(1));
+
+        EventStream resumed = subscribe(lastId);
+        assertThat(resumed.next().get("data")).contains("Missed 1");
+        assertThat(resumed.next().get("data")).contains("Missed 2");
+    }
+
+    @Test
+    void unknownLastEventIdGetsResync() throws Exception {
+        EventStream events = subscribe("another-instance-42");
+
+        assertThat(events.next().get("event")).isEqualTo("resync");
+    }
+
+    private EventStream subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/todos/events"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        // returns once the headers are in, i.e. after the subscription is registered
+        HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        EventStream stream = new EventStream(response.body());
+        streams.add(stream);
+        return stream;
+    }
+
+    // Parses the stream into events (field name to value), skipping comments
+    private static final class EventStream {
+
+        private final InputStream body;
+        private final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+
+        EventStream(InputStream body) {
+            this.body = body;
+            Thread.ofVirtual().start(this::read);
+        }
+
+        Map<String, String> next() throws InterruptedException {
+            Map<String, String> event = events.poll(10, TimeUnit.SECONDS);
+            assertThat(event).as("event within 10 s").isNotNull();
+            return event;
+        }
+
+        void close() {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                Map<String, String> event = new HashMap<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (!event.isEmpty()) {
+                            events.add(event);
+                            event = new HashMap<>();
+                        }
+                    } else if (!line.startsWith(":")) {
+                        int colon = line.indexOf(':');
+                        event.put(line.substring(0, colon), line.substring(colon + 1));
+                    }
+                }
+            } catch (IOException e) {
+                // closed by the test
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.simplesystem.todoservice.metrics;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoStatusCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "todo.pastdue.timer.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class TodoMetricsTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    TodoPastDueScheduler scheduler;
+
+    @Autowired
+    TodoStatusCounters counters;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+        counters.reconcile();
+    }
+
+    @Test
+    void prometheus_exposesEndpointRepositoryAndSweepMetrics() throws Exception {
+        TodoItem item = service.create("Metered", LocalDateTime.now().plusDays(1));
+        mockMvc.perform(get("/todos/" + item.getId())).andExpect(status().isOk());
+        scheduler.markPastDueItems();
+
+        String scrape = scrape();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds{")
+                .containsPattern("http_server_requests_seconds\\{.*uri=\"/todos/\\{id}\",quantile=\"0\\.99\"")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findResponseById\"")
+                .containsPattern("todo_repository_rows_count\\{method=\"findResponseById\"")
+                .contains("todo_pastdue_sweep_seconds_count")
+                .contains("todo_pastdue_sweep_moved_items_count")
+                .contains("todo_pastdue_sweep_lag_seconds");
+    }
+
+    @Test
+    void prometheus_reportsLiveItemCountsPerStatus() throws Exception {
+        service.create("A", LocalDateTime.now().plusDays(1));
+        TodoItem done = service.create("B", LocalDateTime.now().plusDays(1));
+        service.markDone(done.getId());
+
+        String scrape = scrape();
+
+        assertThat(scrape)
+                .contains("todo_items{status=\"NOT_DONE\",} 1.0")
+                .contains("todo_items{status=\"DONE\",} 1.0")
+                .contains("todo_items{status=\"PAST_DUE\",} 0.0");
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
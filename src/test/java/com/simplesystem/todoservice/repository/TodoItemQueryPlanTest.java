@@ -0,0 +1,446 @@
+package com.simplesystem.todoservice.repository;
+
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.service.TodoCursor;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Seeds a large table and checks with EXPLAIN that every repository query is answered
+// through an index. The SQL is the one Hibernate actually generates for the repository
+// method, so a changed query or a dropped index fails here instead of in production.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-plan-db",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.simplesystem.todoservice.repository.CapturingStatementInspector",
+        "todo.pastdue.timer.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TodoItemQueryPlanTest {
+
+    private static final int ROWS = 50_000;
+    private static final int ARCHIVED_ROWS = 20_000;
+    private static final String STATUS_DUE_TIME_INDEX = "IDX_TODO_ITEMS_STATUS_DUE_TIME_ID";
+    private static final String STATUS_COMPLETION_TIME_INDEX = "IDX_TODO_ITEMS_STATUS_COMPLETION_TIME";
+    private static final String STATUS_ID_INDEX = "IDX_TODO_ITEMS_STATUS_ID";
+    private static final String ARCHIVE_STATUS_ID_INDEX = "IDX_TODO_ITEMS_ARCHIVE_STATUS_ID";
+    // A full scan of the item tables; the lease table holds one row per partition and is
+    // cheapest to scan whole
+    private static final Pattern ITEM_TABLE_SCAN = Pattern.compile("TODO_ITEMS(_ARCHIVE)?\\.tableScan");
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    ArchivedTodoItemRepository archive;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void seed() {
+        repository.deleteAll();
+        archive.deleteAll();
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            // mostly completed history, a smaller open working set
+            TodoStatus status = i % 20 == 0 ? TodoStatus.PAST_DUE
+                    : i % 7 == 0 ? TodoStatus.NOT_DONE
+                    : TodoStatus.DONE;
+            LocalDateTime due = now.minusDays(30).plusMinutes(i);
+            rows.add(new Object[]{
+                    (long) i,
+                    "Seeded task " + i,
+                    status.name(),
+                    Timestamp.valueOf(due.minusDays(1)),
+                    Timestamp.valueOf(due),
+                    status == TodoStatus.DONE ? Timestamp.valueOf(due.minusHours(1)) : null,
+                    0L
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into todo_items (id, description, status, creation_time, due_time, completion_time, version)
+                values (?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+
+        // older history, after the ids of todo_items
+        List<Object[]> archived = new ArrayList<>(ARCHIVED_ROWS);
+        for (int i = 1; i <= ARCHIVED_ROWS; i++) {
+            TodoStatus status = i % 10 == 0 ? TodoStatus.PAST_DUE : TodoStatus.DONE;
+            LocalDateTime due = now.minusDays(90).plusMinutes(i);
+            archived.add(new Object[]{
+                    (long) (ROWS + i),
+                    "Archived task " + i,
+                    status.name(),
+                    Timestamp.valueOf(due.minusDays(1)),
+                    Timestamp.valueOf(due),
+                    status == TodoStatus.DONE ? Timestamp.valueOf(due.minusHours(1)) : null,
+                    0L,
+                    Timestamp.valueOf(now)
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into todo_items_archive (id, description, status, creation_time, due_time, completion_time,
+                                                version, archived_at)
+                values (?, ?, ?, ?, ?, ?, ?, ?)
+                """, archived);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void findResponsesByStatusIn_usesStatusIndex() {
+        String plan = explain(
+                () -> repository.findResponsesByStatusIn(List.of(TodoStatus.NOT_DONE, TodoStatus.PAST_DUE)),
+                "NOT_DONE", "PAST_DUE");
+
+        // any of the indexes leading with status
+        assertThat(plan).containsAnyOf(STATUS_DUE_TIME_INDEX, STATUS_COMPLETION_TIME_INDEX, STATUS_ID_INDEX);
+    }
+
+    @Test
+    void countGroupedByStatus_usesStatusIndex() {
+        String plan = explain(() -> repository.countGroupedByStatus());
+
+        // any of the indexes leading with status
+        assertThat(plan).containsAnyOf(STATUS_DUE_TIME_INDEX, STATUS_COMPLETION_TIME_INDEX, STATUS_ID_INDEX);
+    }
+
+    @Test
+    void countByStatusAndDueTimeBefore_usesStatusDueTimeIndex() {
+        String plan = explain(
+                () -> repository.countByStatusAndDueTimeBefore(TodoStatus.NOT_DONE, now),
+                "NOT_DONE", Timestamp.valueOf(now));
+
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX);
+    }
+
+    @Test
+    void sweepSelect_usesStatusDueTimeIndex() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s ->
+                        repository.findIdsByStatusAndDueTimeBefore(TodoStatus.NOT_DONE, now, Limit.of(1000))),
+                "NOT_DONE", Timestamp.valueOf(now), 1000);
+
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX);
+    }
+
+    @Test
+    void timerSelect_usesPrimaryKey() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s ->
+                        repository.findIdsByIdInAndStatusAndDueTimeBefore(List.of(7L, 14L), TodoStatus.NOT_DONE, now)),
+                7L, 14L, "NOT_DONE", Timestamp.valueOf(now));
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    void streamDueTimesByStatus_usesStatusDueTimeIndex() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s -> {
+                    try (Stream<TodoDueTime> open = repository.streamDueTimesByStatus(TodoStatus.NOT_DONE)) {
+                        open.findFirst();
+                    }
+                }),
+                "NOT_DONE");
+
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX);
+    }
+
+    @Test
+    void streamDueTimesByStatusInPartitions_usesStatusDueTimeIndex() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s -> {
+                    try (Stream<TodoDueTime> open = repository.streamDueTimesByStatusInPartitions(TodoStatus.NOT_DONE, 8, List.of(1, 5))) {
+                        open.findFirst();
+                    }
+                }),
+                "NOT_DONE", 8, 1, 5);
+
+        assertThat(plan).containsAnyOf(STATUS_DUE_TIME_INDEX, STATUS_ID_INDEX);
+    }
+
+    @Test
+    void findDue_isOrderedIndexRangeScan() {
+        LocalDateTime from = now.minusDays(1);
+        LocalDateTime to = now.plusDays(1);
+
+        String plan = explain(
+                () -> repository.findDue(TodoStatus.NOT_DONE, from, to, from, 0L, Limit.of(51)),
+                "NOT_DONE", Timestamp.valueOf(from), Timestamp.valueOf(to),
+                Timestamp.valueOf(from), Timestamp.valueOf(from), 0L, 51);
+
+        // rows come out of the index in order, so the scan stops after the limit
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX).contains("index sorted");
+    }
+
+    @Test
+    void findArchivableDoneIds_usesStatusCompletionTimeIndex() {
+        LocalDateTime cutoff = now.minusDays(20);
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s ->
+                        repository.findArchivableDoneIds(cutoff, Limit.of(500))),
+                Timestamp.valueOf(cutoff), 500);
+
+        assertThat(plan).contains(STATUS_COMPLETION_TIME_INDEX);
+    }
+
+    @Test
+    void findArchivablePastDueIds_usesStatusDueTimeIndex() {
+        LocalDateTime cutoff = now.minusDays(20);
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s ->
+                        repository.findArchivablePastDueIds(cutoff, Limit.of(500))),
+                Timestamp.valueOf(cutoff), 500);
+
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX);
+    }
+
+    @Test
+    void deleteArchivable_usesPrimaryKey() {
+        LocalDateTime cutoff = now.minusDays(20);
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s -> {
+                    repository.deleteArchivable(List.of(20L, 21L), cutoff);
+                    s.setRollbackOnly();
+                }),
+                20L, 21L, Timestamp.valueOf(cutoff), Timestamp.valueOf(cutoff));
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    void getPage_multiStatusDeepCursor_readsOnlyAboutOnePagePerStatus() {
+        LocalDateTime from = now.minusDays(30);
+        LocalDateTime to = now.plusDays(30);
+        // item 40000 of 50000: the old single query re-read every earlier row of the window
+        LocalDateTime deep = now.minusDays(30).plusMinutes(40_000);
+        String cursor = new TodoCursor(deep, 40_000L).encode();
+        int limit = 50;
+
+        List<String> plans = explainAnalyzeAll(
+                () -> {
+                    TodoPage page = service.getPage(List.of(TodoStatus.NOT_DONE, TodoStatus.PAST_DUE), false, from, to, cursor, limit);
+                    assertThat(page.items()).hasSize(limit);
+                    assertThat(page.items().get(0).getDueTime()).isAfter(deep);
+                },
+                List.of(
+                        pageParameters("NOT_DONE", deep, to, deep, 40_000L, limit + 1),
+                        pageParameters("PAST_DUE", deep, to, deep, 40_000L, limit + 1),
+                        pageParameters("PAST_DUE", deep, to, deep, 40_000L, limit + 1)));
+
+        assertThat(plans).hasSize(3);
+        // one ordered scan per status of the hot table, then the archive
+        assertThat(plans.get(0)).contains(STATUS_DUE_TIME_INDEX).contains("index sorted");
+        assertThat(plans.get(1)).contains(STATUS_DUE_TIME_INDEX).contains("index sorted");
+        assertThat(plans.get(2)).contains("IDX_TODO_ITEMS_ARCHIVE_STATUS_DUE_TIME_ID").contains("index sorted");
+        for (String plan : plans) {
+            assertThat(scanCount(plan)).as(plan).isLessThanOrEqualTo(2 * (limit + 1));
+        }
+    }
+
+    @Test
+    void findIdsByStatusAndDueTimeBeforeInLeasedPartitions_usesStatusDueTimeIndex() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s ->
+                        repository.findIdsByStatusAndDueTimeBeforeInLeasedPartitions(TodoStatus.NOT_DONE, now, 8, "node-a", Limit.of(1000))),
+                "NOT_DONE", Timestamp.valueOf(now), 8, "node-a", Timestamp.valueOf(now), 1000);
+
+        assertThat(plan).contains(STATUS_DUE_TIME_INDEX);
+    }
+
+    @Test
+    void findIdsByStatusAndDescriptionLike_readsStatusIdIndexInOrder() {
+        String plan = explain(
+                () -> repository.findIdsByStatusAndDescriptionLike(TodoStatus.NOT_DONE, "%task 7%", Limit.of(51)),
+                "NOT_DONE", "%task 7%", 51);
+
+        // the pattern cannot use an index; rows come in id order, so the scan stops at the limit
+        assertThat(plan).contains(STATUS_ID_INDEX).contains("index sorted");
+    }
+
+    @Test
+    void streamResponsesByStatus_readsStatusIdIndexInOrder() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s -> {
+                    try (Stream<?> rows = repository.streamResponsesByStatus(TodoStatus.DONE)) {
+                        rows.findFirst();
+                    }
+                }),
+                "DONE");
+
+        // no sort buffers the whole export before the first row goes out
+        assertThat(plan).contains(STATUS_ID_INDEX).contains("index sorted");
+    }
+
+    @Test
+    void streamResponses_walksPrimaryKeyInOrder() {
+        String plan = explain(() -> transactionTemplate.executeWithoutResult(s -> {
+            try (Stream<?> rows = repository.streamResponses()) {
+                rows.findFirst();
+            }
+        }));
+
+        assertThat(plan).contains("PRIMARY_KEY").contains("index sorted");
+    }
+
+    @Test
+    void archiveFindResponsesByStatusIn_usesStatusIndex() {
+        String plan = explain(() -> archive.findResponsesByStatusIn(List.of(TodoStatus.PAST_DUE)), "PAST_DUE");
+
+        assertThat(plan).contains(ARCHIVE_STATUS_ID_INDEX);
+    }
+
+    // Reads every row's status, but from the index rather than the rows; only the scheduled
+    // reconcile (and the summary with several instances) runs it
+    @Test
+    void archiveCountGroupedByStatus_usesStatusIndex() {
+        String plan = explain(() -> archive.countGroupedByStatus());
+
+        assertThat(plan).contains(ARCHIVE_STATUS_ID_INDEX);
+    }
+
+    @Test
+    void archiveFindIdsByStatusAndDescriptionLike_readsStatusIdIndexInOrder() {
+        String plan = explain(
+                () -> archive.findIdsByStatusAndDescriptionLike(TodoStatus.DONE, "%task 7%", Limit.of(51)),
+                "DONE", "%task 7%", 51);
+
+        assertThat(plan).contains(ARCHIVE_STATUS_ID_INDEX).contains("index sorted");
+    }
+
+    @Test
+    void archiveStreamResponsesByStatus_readsStatusIdIndexInOrder() {
+        String plan = explain(
+                () -> transactionTemplate.executeWithoutResult(s -> {
+                    try (Stream<?> rows = archive.streamResponsesByStatus(TodoStatus.DONE)) {
+                        rows.findFirst();
+                    }
+                }),
+                "DONE");
+
+        assertThat(plan).contains(ARCHIVE_STATUS_ID_INDEX).contains("index sorted");
+    }
+
+    @Test
+    void archiveStreamResponses_walksPrimaryKeyInOrder() {
+        String plan = explain(() -> transactionTemplate.executeWithoutResult(s -> {
+            try (Stream<?> rows = archive.streamResponses()) {
+                rows.findFirst();
+            }
+        }));
+
+        assertThat(plan).contains("PRIMARY_KEY").contains("index sorted");
+    }
+
+    @Test
+    void findResponsesByIdIn_usesPrimaryKey() {
+        String plan = explain(() -> repository.findResponsesByIdIn(List.of(7L, 14L, 21L)), 7L, 14L, 21L);
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    void findResponseById_usesPrimaryKey() {
+        String plan = explain(() -> repository.findResponseById(42L), 42L);
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    void findById_usesPrimaryKey() {
+        String plan = explain(() -> repository.findById(42L), 42L);
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    // Runs the repository call, then explains the last statement it issued with the given parameters
+    private String explain(Runnable call, Object... parameters) {
+        List<String> statements = capture(call);
+        return plan("explain ", statements.get(statements.size() - 1), parameters);
+    }
+
+    // Runs the call, then runs every statement it issued again under EXPLAIN ANALYZE, which
+    // reports the rows each scan actually read; one parameter array per statement
+    private List<String> explainAnalyzeAll(Runnable call, List<Object[]> parameters) {
+        List<String> statements = capture(call);
+        assertThat(statements).hasSameSizeAs(parameters);
+        List<String> plans = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            plans.add(plan("explain analyze ", statements.get(i), parameters.get(i)));
+        }
+        return plans;
+    }
+
+    private static List<String> capture(Runnable call) {
+        CapturingStatementInspector.drain();
+        call.run();
+        List<String> statements = CapturingStatementInspector.drain();
+        assertThat(statements).as("statements issued by the repository call").isNotEmpty();
+        return statements;
+    }
+
+    private String plan(String explain, String sql, Object... parameters) {
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(explain + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+
+        assertThat(plan).as("plan for %s", sql).doesNotContainPattern(ITEM_TABLE_SCAN);
+        return plan;
+    }
+
+    // Parameters of a keyset page query: status, window, cursor, offset 0 and limit
+    private static Object[] pageParameters(String status, LocalDateTime from, LocalDateTime to,
+                                           LocalDateTime afterDueTime, long afterId, int limit) {
+        return new Object[]{status, Timestamp.valueOf(from), Timestamp.valueOf(to),
+                Timestamp.valueOf(afterDueTime), Timestamp.valueOf(afterDueTime), afterId, 0, limit};
+    }
+
+    private static long scanCount(String plan) {
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        long total = 0;
+        while (matcher.find()) {
+            total += Long.parseLong(matcher.group(1));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,108 @@
+package com.simplesystem.todoservice.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueTimeHeapTest {
+
+    @Test
+    void pollExpired_returnsDueIdsEarliestFirst() {
+        DueTimeHeap heap = new DueTimeHeap();
+        heap.schedule(1, 300);
+        heap.schedule(2, 100);
+        heap.schedule(3, 200);
+        heap.schedule(4, 900);
+
+        long[] out = new long[10];
+        int count = heap.pollExpired(300, out);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(out).startsWith(2, 3, 1);
+        assertThat(heap.size()).isEqualTo(1);
+        assertThat(heap.peekDeadline()).isEqualTo(900);
+    }
+
+    @Test
+    void countUpTo_countsDeadlinesAtOrBeforeBound() {
+        DueTimeHeap heap = new DueTimeHeap();
+        for (int id = 1; id <= 100; id++) {
+            heap.schedule(id, (id * 37) % 101);
+        }
+
+        assertThat(heap.countUpTo(-1)).isZero();
+        assertThat(heap.countUpTo(50)).isEqualTo(50);
+        assertThat(heap.countUpTo(Long.MAX_VALUE)).isEqualTo(100);
+    }
+
+    @Test
+    void schedule_existingIdMovesDeadline() {
+        DueTimeHeap heap = new DueTimeHeap();
+        heap.schedule(1, 100);
+        heap.schedule(2, 200);
+
+        heap.schedule(1, 500);
+
+        assertThat(heap.size()).isEqualTo(2);
+        assertThat(heap.peekDeadline()).isEqualTo(200);
+    }
+
+    @Test
+    void cancel_removesIdAndIgnoresUnknown() {
+        DueTimeHeap heap = new DueTimeHeap();
+        heap.schedule(1, 100);
+
+        assertThat(heap.cancel(1)).isTrue();
+        assertThat(heap.cancel(1)).isFalse();
+        assertThat(heap.size()).isZero();
+        assertThat(heap.peekDeadline()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void pollExpired_respectsOutputCapacity() {
+        DueTimeHeap heap = new DueTimeHeap();
+        for (int i = 1; i <= 5; i++) {
+            heap.schedule(i, i);
+        }
+
+        long[] out = new long[2];
+
+        assertThat(heap.pollExpired(10, out)).isEqualTo(2);
+        assertThat(heap.size()).isEqualTo(3);
+    }
+
+    @Test
+    void randomOperations_matchReferenceModel() {
+        DueTimeHeap heap = new DueTimeHeap();
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(heap.cancel(id)).isEqualTo(reference.remove(id) != null);
+            } else {
+                long deadline = random.nextInt(1_000_000);
+                heap.schedule(id, deadline);
+                reference.put(id, deadline);
+            }
+        }
+
+        assertThat(heap.size()).isEqualTo(reference.size());
+
+        long[] out = new long[reference.size()];
+        int count = heap.pollExpired(Long.MAX_VALUE, out);
+
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            long deadline = reference.remove(out[i]);
+            assertThat(deadline).isGreaterThanOrEqualTo(previous);
+            previous = deadline;
+        }
+        assertThat(reference).isEmpty();
+    }
+}
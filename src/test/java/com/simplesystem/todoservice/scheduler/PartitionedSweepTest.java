@@ -0,0 +1,178 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.TodoserviceApplication;
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.service.TodoItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Several in-process instances on one shared H2 database, coordinating the sweep through leases.
+// Heartbeats are driven by the test; the scheduled ones only run once at startup.
+class PartitionedSweepTest {
+
+    private static final int PARTITIONS = 8;
+
+    private final String database = "sweep-" + UUID.randomUUID();
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    @AfterEach
+    void stopInstances() {
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void instancesSplitPartitionsAndSweepEachItemOnce() throws Exception {
+        List<TodoSweepPartitions> nodes = List.of(start(), start(), start());
+        heartbeats(nodes);
+
+        assertDisjointCover(nodes);
+        for (TodoSweepPartitions node : nodes) {
+            assertThat(node.owned()).hasSizeLessThanOrEqualTo(3);
+        }
+
+        TodoItemRepository repository = instances.get(0).getBean(TodoItemRepository.class);
+        List<Long> ids = repository.saveAll(IntStream.range(0, 300).mapToObj(i -> overdue()).toList())
+                .stream().map(TodoItem::getId).toList();
+
+        List<Callable<Integer>> sweeps = instances.stream()
+                .map(instance -> instance.getBean(TodoPastDueScheduler.class))
+                .<Callable<Integer>>map(scheduler -> scheduler::markPastDueItems)
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(sweeps.size());
+        int moved = 0;
+        try {
+            for (Future<Integer> sweep : executor.invokeAll(sweeps)) {
+                assertThat(sweep.get()).isPositive();
+                moved += sweep.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(moved).isEqualTo(ids.size());
+        assertThat(repository.findAllById(ids)).allMatch(item -> item.getStatus() == TodoStatus.PAST_DUE);
+    }
+
+    @Test
+    void expiredLeasesOfADeadInstanceAreTakenOver() throws Exception {
+        List<TodoSweepPartitions> nodes = new ArrayList<>(List.of(start(), start()));
+        JdbcTemplate jdbc = instances.get(0).getBean(JdbcTemplate.class);
+
+        // a crashed instance: its leases and heartbeat simply stop being renewed
+        Timestamp expiresSoon = Timestamp.valueOf(LocalDateTime.now().plusSeconds(2));
+        jdbc.update("update todo_sweep_leases set owner = 'dead', expires_at = ? where partition_no < 4", expiresSoon);
+        jdbc.update("insert into todo_sweep_nodes (node_id, expires_at) values ('dead', ?)", expiresSoon);
+        heartbeats(nodes);
+
+        Set<Integer> live = new HashSet<>();
+        nodes.forEach(node -> live.addAll(node.owned()));
+        assertThat(live).doesNotContain(0, 1, 2, 3);
+
+        Thread.sleep(2100);
+        heartbeats(nodes);
+
+        assertDisjointCover(nodes);
+    }
+
+    @Test
+    void stoppedInstanceHandsItsLeasesOver() {
+        List<TodoSweepPartitions> nodes = new ArrayList<>(List.of(start(), start()));
+        heartbeats(nodes);
+
+        instances.remove(1).close();
+        nodes.remove(1);
+        heartbeats(nodes);
+
+        assertThat(nodes.get(0).owned()).hasSize(PARTITIONS);
+    }
+
+    @Test
+    void dueTimeTimersFollowTheLeases() {
+        // the only instance holds every partition and schedules each item created through it
+        List<TodoSweepPartitions> nodes = new ArrayList<>(List.of(start(true)));
+        TodoItemService service = instances.get(0).getBean(TodoItemService.class);
+        List<Long> ids = IntStream.range(0, 100)
+                .mapToObj(i -> service.create("Due tomorrow", LocalDateTime.now().plusDays(1)).getId())
+                .toList();
+        assertThat(instances.get(0).getBean(TodoDueTimeTracker.class).trackedCount()).isEqualTo(ids.size());
+
+        // half the partitions move to a second instance, which seeds them from the database
+        nodes.add(start(true));
+        heartbeats(nodes);
+        assertDisjointCover(nodes);
+
+        int tracked = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            List<Integer> owned = nodes.get(i).owned();
+            long inOwnedPartitions = ids.stream().filter(id -> owned.contains((int) (id % PARTITIONS))).count();
+            int count = instances.get(i).getBean(TodoDueTimeTracker.class).trackedCount();
+            assertThat(count).isEqualTo(inOwnedPartitions);
+            tracked += count;
+        }
+        assertThat(tracked).isEqualTo(ids.size());
+    }
+
+    private TodoSweepPartitions start() {
+        return start(false);
+    }
+
+    private TodoSweepPartitions start(boolean timer) {
+        ConfigurableApplicationContext instance = new SpringApplicationBuilder(TodoserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--spring.sql.init.mode=always",
+                        "--spring.sql.init.schema-locations=classpath:db/schema.sql",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.jpa.show-sql=false",
+                        "--todo.pastdue.timer.enabled=" + timer,
+                        "--todo.pastdue.partitioning.enabled=true",
+                        "--todo.pastdue.partitioning.partitions=" + PARTITIONS,
+                        "--todo.pastdue.partitioning.lease-ms=60000",
+                        "--todo.pastdue.partitioning.heartbeat-ms=3600000");
+        instances.add(instance);
+        return instance.getBean(TodoSweepPartitions.class);
+    }
+
+    // Enough rounds for surplus leases to be released and then claimed by the others
+    private static void heartbeats(List<TodoSweepPartitions> nodes) {
+        for (int round = 0; round < 3; round++) {
+            nodes.forEach(TodoSweepPartitions::heartbeat);
+        }
+    }
+
+    private static void assertDisjointCover(List<TodoSweepPartitions> nodes) {
+        List<Integer> all = new ArrayList<>();
+        nodes.forEach(node -> all.addAll(node.owned()));
+        assertThat(all).containsExactlyInAnyOrderElementsOf(IntStream.range(0, PARTITIONS).boxed().toList());
+    }
+
+    private static TodoItem overdue() {
+        return TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(1))
+                .status(TodoStatus.NOT_DONE)
+                .build();
+    }
+}
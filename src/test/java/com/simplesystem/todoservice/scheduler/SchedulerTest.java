@@ -3,12 +3,18 @@ package com.simplesystem.todoservice.scheduler;
 import com.simplesystem.todoservice.model.TodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
 import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.service.TodoChangeCounter;
+import com.simplesystem.todoservice.service.TodoItemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,6 +28,21 @@ public class SchedulerTest {
     @Autowired
     TodoItemRepository repository;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher publisher;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoChangeCounter changes;
+
+    @Autowired
+    TodoSweepPartitions sweepPartitions;
+
     @BeforeEach
     void cleanDb() {
         repository.deleteAll();
@@ -77,4 +98,58 @@ public class SchedulerTest {
         assertThat(futureAfter.getStatus()).isEqualTo(TodoStatus.NOT_DONE);
         assertThat(doneAfter.getStatus()).isEqualTo(TodoStatus.DONE);
     }
+
+    @Test
+    void sweepsBacklogInChunksAndReturnsChangedRowCount() {
+        List<TodoItem> backlog = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            backlog.add(TodoItem.builder()
+                    .description("Overdue " + i)
+                    .creationTime(LocalDateTime.now().minusHours(2))
+                    .dueTime(LocalDateTime.now().minusMinutes(10 + i))
+                    .status(TodoStatus.NOT_DONE)
+                    .build());
+        }
+        repository.saveAll(backlog);
+
+        TodoPastDueScheduler chunked = new TodoPastDueScheduler(repository, transactionTemplate, publisher, sweepPartitions, new SimpleMeterRegistry(), 3);
+
+        assertThat(chunked.markPastDueItems()).isEqualTo(7);
+        assertThat(repository.findAll())
+                .extracting(TodoItem::getStatus)
+                .containsOnly(TodoStatus.PAST_DUE);
+
+        // nothing left to do on the next run
+        assertThat(chunked.markPastDueItems()).isZero();
+    }
+
+    @Test
+    void sweepInvalidatesCachedSnapshots() {
+        TodoItem overdue = repository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(10))
+                .status(TodoStatus.NOT_DONE)
+                .build());
+        assertThat(service.getResponseById(overdue.getId()).getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+
+        scheduler.markPastDueItems();
+
+        assertThat(service.getResponseById(overdue.getId()).getStatus()).isEqualTo(TodoStatus.PAST_DUE);
+    }
+
+    @Test
+    void sweepBumpsChangeCounter() {
+        repository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(10))
+                .status(TodoStatus.NOT_DONE)
+                .build());
+        String before = changes.current();
+
+        scheduler.markPastDueItems();
+
+        assertThat(changes.current()).isNotEqualTo(before);
+    }
 }
@@ -0,0 +1,161 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.search.TodoSearchIndex;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TodoArchiverTest {
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    ArchivedTodoItemRepository archive;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoSearchIndex searchIndex;
+
+    private TodoArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        cleanDb();
+        archiver = new TodoArchiver(repository, archive, transactionTemplate, new SimpleMeterRegistry(), true, 30, 2);
+    }
+
+    // The database is shared with other test contexts
+    @AfterEach
+    void cleanDb() {
+        repository.deleteAll();
+        archive.deleteAll();
+    }
+
+    @Test
+    void movesOnlyItemsPastRetentionInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoItem> old = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            old.add(item("Old done " + i, TodoStatus.DONE, now.minusDays(50), now.minusDays(40)));
+        }
+        old.add(item("Old past due", TodoStatus.PAST_DUE, now.minusDays(40), null));
+        repository.saveAll(old);
+        TodoItem recentDone = repository.save(item("Recent done", TodoStatus.DONE, now.minusDays(50), now.minusDays(1)));
+        TodoItem recentPastDue = repository.save(item("Recent past due", TodoStatus.PAST_DUE, now.minusDays(2), null));
+        TodoItem open = repository.save(item("Open", TodoStatus.NOT_DONE, now.plusDays(1), null));
+
+        assertThat(archiver.archive()).isEqualTo(4);
+
+        assertThat(repository.findAll())
+                .extracting(TodoItem::getId)
+                .containsExactlyInAnyOrder(recentDone.getId(), recentPastDue.getId(), open.getId());
+        assertThat(archive.count()).isEqualTo(4);
+
+        // nothing left on the next pass
+        assertThat(archiver.archive()).isZero();
+    }
+
+    @Test
+    void archivedItemsAreStillReadable() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoItem done = repository.save(item("Archived done", TodoStatus.DONE, now.minusDays(50), now.minusDays(40)));
+        TodoItem open = repository.save(item("Open", TodoStatus.NOT_DONE, now.plusDays(1), null));
+        archiver.archive();
+
+        assertThat(service.getById(done.getId()).getDescription()).isEqualTo("Archived done");
+        assertThat(service.getResponseById(done.getId()).getStatus()).isEqualTo(TodoStatus.DONE);
+
+        assertThat(service.getAll(true)).extracting(TodoResponse::getId)
+                .containsExactlyInAnyOrder(done.getId(), open.getId());
+        assertThat(service.getAll(false)).extracting(TodoResponse::getId)
+                .containsExactly(open.getId());
+
+        List<Long> exported = new ArrayList<>();
+        service.export(true, item -> exported.add(item.getId()));
+        assertThat(exported).containsExactly(done.getId(), open.getId());
+    }
+
+    @Test
+    void archivedItemsStayInTheSearchIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoItem done = repository.save(item("Archived invoice", TodoStatus.DONE, now.minusDays(50), now.minusDays(40)));
+        TodoItem open = repository.save(item("Open invoice", TodoStatus.NOT_DONE, now.plusDays(1), null));
+        archiver.archive();
+        // the rows were written without events; a rebuild reads todo_items and the archive
+        searchIndex.build();
+
+        assertThat(searchIndex.isAvailable()).isTrue();
+        assertThat(service.search("invoice", null, true, null, null).items()).extracting(TodoResponse::getId)
+                .containsExactlyInAnyOrder(done.getId(), open.getId());
+        assertThat(service.search("invoice", null, false, null, null).items()).extracting(TodoResponse::getId)
+                .containsExactly(open.getId());
+    }
+
+    @Test
+    void pagesMergeHotAndArchivedItemsInDueTimeOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoItem first = repository.save(item("First", TodoStatus.DONE, now.minusDays(60), now.minusDays(59)));
+        TodoItem second = repository.save(item("Second", TodoStatus.DONE, now.minusDays(50), now.minusDays(1)));
+        TodoItem third = repository.save(item("Third", TodoStatus.PAST_DUE, now.minusDays(40), null));
+        TodoItem fourth = repository.save(item("Fourth", TodoStatus.NOT_DONE, now.plusDays(1), null));
+        archiver.archive();
+        assertThat(archive.count()).isEqualTo(2);
+
+        TodoPage page = service.getPage(null, true, null, null, null, 3);
+        assertThat(page.items()).extracting(TodoResponse::getId)
+                .containsExactly(first.getId(), second.getId(), third.getId());
+
+        TodoPage rest = service.getPage(null, true, null, null, page.next(), 3);
+        assertThat(rest.items()).extracting(TodoResponse::getId).containsExactly(fourth.getId());
+        assertThat(rest.next()).isNull();
+    }
+
+    @Test
+    void archivedItemsCannotBeModified() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoItem done = repository.save(item("Archived done", TodoStatus.DONE, now.minusDays(50), now.minusDays(40)));
+        archiver.archive();
+
+        assertThatThrownBy(() -> service.markNotDone(done.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot modify an archived item");
+        assertThatThrownBy(() -> service.updateDescription(done.getId(), "Changed"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot modify an archived item");
+    }
+
+    private static TodoItem item(String description, TodoStatus status, LocalDateTime dueTime, LocalDateTime completionTime) {
+        return TodoItem.builder()
+                .description(description)
+                .creationTime(dueTime.minusDays(1))
+                .dueTime(dueTime)
+                .completionTime(completionTime)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.simplesystem.todoservice.scheduler;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.service.TodoItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class TodoDueTimeTrackerTest {
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void marksItemPastDueRightAfterItsDeadline() throws InterruptedException {
+        TodoItem item = service.create("Soon", LocalDateTime.now().plusNanos(300_000_000));
+
+        assertThat(awaitStatus(item.getId(), TodoStatus.PAST_DUE)).isEqualTo(TodoStatus.PAST_DUE);
+    }
+
+    @Test
+    void doneItemIsNotMarkedPastDue() throws InterruptedException {
+        TodoItem item = service.create("Soon", LocalDateTime.now().plusNanos(300_000_000));
+        service.markDone(item.getId());
+
+        Thread.sleep(600);
+
+        assertThat(repository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(TodoStatus.DONE);
+    }
+
+    @Test
+    void rescheduledItemFollowsItsNewDeadline() throws InterruptedException {
+        TodoItem item = service.create("Soon", LocalDateTime.now().plusNanos(300_000_000));
+        service.updateDueTime(item.getId(), LocalDateTime.now().plusHours(1));
+
+        Thread.sleep(600);
+
+        assertThat(repository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+    }
+
+    private TodoStatus awaitStatus(Long id, TodoStatus expected) throws InterruptedException {
+        TodoStatus status = null;
+        for (int i = 0; i < 50 && status != expected; i++) {
+            Thread.sleep(50);
+            status = repository.findById(id).orElseThrow().getStatus();
+        }
+        return status;
+    }
+}
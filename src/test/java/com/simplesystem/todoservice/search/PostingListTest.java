@@ -0,0 +1,63 @@
+package com.simplesystem.todoservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void add_keepsIdsSortedAndDistinct() {
+        PostingList postings = new PostingList();
+        assertThat(postings.add(5)).isTrue();
+        assertThat(postings.add(300)).isTrue();
+        assertThat(postings.add(1L << 40)).isTrue();
+        assertThat(postings.add(7)).isTrue();
+        assertThat(postings.add(300)).isFalse();
+
+        assertThat(postings.size()).isEqualTo(4);
+        assertThat(postings.toArray()).containsExactly(5, 7, 300, 1L << 40);
+    }
+
+    @Test
+    void remove_dropsOnlyPresentIds() {
+        PostingList postings = new PostingList();
+        for (long id = 1; id <= 10; id++) {
+            postings.add(id);
+        }
+
+        assertThat(postings.remove(4)).isTrue();
+        assertThat(postings.remove(42)).isFalse();
+        assertThat(postings.toArray()).containsExactly(1, 2, 3, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    void randomOperations_matchSortedSet() {
+        Random random = new Random(7);
+        PostingList postings = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                assertThat(postings.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                assertThat(postings.add(id)).isEqualTo(expected.add(id));
+            }
+        }
+
+        assertThat(postings.toArray()).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Test
+    void denseIds_takeAboutOneBytePerId() {
+        PostingList postings = new PostingList();
+        for (long id = 1_000_000; id < 1_010_000; id++) {
+            postings.add(id);
+        }
+
+        assertThat(postings.capacity()).isLessThan(2 * 10_000 + 16);
+    }
+}
@@ -0,0 +1,86 @@
+package com.simplesystem.todoservice.search;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.scheduler.TodoArchiver;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A budget too small for a single item keeps the index unavailable, so searches scan the table
+@SpringBootTest(properties = {"todo.search.max-memory-bytes=1", "todo.pastdue.timer.enabled=false"})
+public class TodoSearchFallbackTest {
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoSearchIndex index;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    ArchivedTodoItemRepository archive;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    // The database is shared with other test contexts
+    @BeforeEach
+    @AfterEach
+    void cleanDb() {
+        repository.deleteAll();
+        archive.deleteAll();
+    }
+
+    @Test
+    void unavailableIndex_fallsBackToDescriptionScan() {
+        service.create("Pay 100% of the invoice", LocalDateTime.now().plusDays(1));
+        service.create("Pay 100 euros", LocalDateTime.now().plusDays(1));
+        service.create("PAY rent", LocalDateTime.now().plusDays(1));
+
+        assertThat(index.isAvailable()).isFalse();
+        // LIKE wildcards in the query are matched literally
+        assertThat(service.search("100%", null, false, null, null).items())
+                .extracting("description").containsExactly("Pay 100% of the invoice");
+
+        TodoPage first = service.search("pay", null, false, null, 2);
+        assertThat(first.items()).hasSize(2);
+        assertThat(service.search("pay", null, false, first.next(), 2).items())
+                .extracting("description").containsExactly("PAY rent");
+    }
+
+    @Test
+    void descriptionScan_coversTheArchive() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoItem archived = repository.save(TodoItem.builder()
+                .description("Renew passport")
+                .creationTime(now.minusDays(60))
+                .dueTime(now.minusDays(50))
+                .completionTime(now.minusDays(40))
+                .status(TodoStatus.DONE)
+                .build());
+        TodoItem open = service.create("Renew passport photos", now.plusDays(1));
+        new TodoArchiver(repository, archive, transactionTemplate, new SimpleMeterRegistry(), true, 30, 10)
+                .archive();
+        assertThat(archive.count()).isEqualTo(1);
+
+        assertThat(service.search("passport", null, true, null, null).items())
+                .extracting("id").containsExactly(archived.getId(), open.getId());
+        assertThat(service.search("passport", null, false, null, null).items())
+                .extracting("id").containsExactly(open.getId());
+    }
+}
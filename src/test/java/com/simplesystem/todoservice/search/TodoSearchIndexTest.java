@@ -0,0 +1,161 @@
+package com.simplesystem.todoservice.search;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import com.simplesystem.todoservice.service.TodoItemService;
+import com.simplesystem.todoservice.service.TodoPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "todo.pastdue.timer.enabled=false")
+public class TodoSearchIndexTest {
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoSearchIndex index;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    ArchivedTodoItemRepository archive;
+
+    @Autowired
+    TodoPastDueScheduler scheduler;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+        // synchronously, so the tests do not race the background build at startup
+        index.build();
+    }
+
+    @Test
+    void terms_areLowerCasedDistinctWords() {
+        assertThat(TodoSearchIndex.terms("Buy milk, buy BREAD & café-au-lait!"))
+                .containsExactly("au", "bread", "buy", "café", "lait", "milk");
+    }
+
+    @Test
+    void search_matchesWordPrefixesAndRanksExactWordsFirst() {
+        TodoItem exact = service.create("Call the plumber", tomorrow());
+        TodoItem prefix = service.create("Callback from the bank", tomorrow());
+        service.create("Water the plants", tomorrow());
+
+        assertThat(ids(service.search("call", null, false, null, null)))
+                .containsExactly(exact.getId(), prefix.getId());
+        // every query word has to match
+        assertThat(ids(service.search("call bank", null, false, null, null)))
+                .containsExactly(prefix.getId());
+        assertThat(service.search("nothing", null, false, null, null).items()).isEmpty();
+    }
+
+    @Test
+    void search_followsDescriptionUpdatesAndStatus() {
+        TodoItem item = service.create("Renew passport", tomorrow());
+        service.updateDescription(item.getId(), "Renew driving licence");
+
+        assertThat(service.search("passport", null, false, null, null).items()).isEmpty();
+        assertThat(ids(service.search("licence", null, false, null, null))).containsExactly(item.getId());
+
+        service.markDone(item.getId());
+        assertThat(service.search("licence", null, false, null, null).items()).isEmpty();
+        assertThat(ids(service.search("licence", List.of(TodoStatus.DONE), false, null, null)))
+                .containsExactly(item.getId());
+    }
+
+    @Test
+    void search_seesItemsMovedToPastDue() {
+        TodoItem item = repository.save(TodoItem.builder()
+                .description("Overdue report")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(1))
+                .status(TodoStatus.NOT_DONE)
+                .build());
+        index.build();
+        scheduler.markPastDueItems();
+
+        assertThat(ids(service.search("report", List.of(TodoStatus.PAST_DUE), false, null, null)))
+                .containsExactly(item.getId());
+        assertThat(service.search("report", List.of(TodoStatus.NOT_DONE), false, null, null).items()).isEmpty();
+    }
+
+    @Test
+    void search_pagesThroughTheRanking() {
+        for (int i = 0; i < 5; i++) {
+            service.create("Chore number " + i, tomorrow());
+        }
+
+        TodoPage first = service.search("chore", null, false, null, 2);
+        TodoPage second = service.search("chore", null, false, first.next(), 2);
+        TodoPage last = service.search("chore", null, false, second.next(), 2);
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(second.items()).hasSize(2);
+        assertThat(last.items()).hasSize(1);
+        assertThat(last.next()).isNull();
+        assertThat(ids(first)).doesNotContainAnyElementsOf(ids(second));
+    }
+
+    @Test
+    void search_rejectsBadInput() {
+        assertThatThrownBy(() -> service.search(" ", null, false, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.search("x", null, false, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void indexOverBudget_becomesUnavailable() {
+        for (int i = 0; i < 20; i++) {
+            service.create("Budget item " + i, tomorrow());
+        }
+
+        TodoSearchIndex small = new TodoSearchIndex(repository, archive, transactionManager, 1024, false);
+        small.build();
+
+        assertThat(small.isAvailable()).isFalse();
+        assertThat(small.estimatedBytes()).isZero();
+        assertThat(small.search("budget", List.of(TodoStatus.values()), 0, 10)).isEmpty();
+
+        TodoSearchIndex large = new TodoSearchIndex(repository, archive, transactionManager, 1 << 20, false);
+        large.build();
+        assertThat(large.isAvailable()).isTrue();
+        assertThat(large.search("budget", List.of(TodoStatus.values()), 0, 10).orElseThrow().ids()).hasSize(10);
+    }
+
+    @Test
+    void sharedDatabase_leavesSearchesToTheDatabase() {
+        service.create("Shared item", tomorrow());
+
+        TodoSearchIndex shared = new TodoSearchIndex(repository, archive, transactionManager, 1 << 20, true);
+        shared.start();
+        assertThat(shared.isAvailable()).isFalse();
+        assertThat(shared.search("shared", List.of(TodoStatus.values()), 0, 10)).isEmpty();
+    }
+
+    private static List<Long> ids(TodoPage page) {
+        return page.items().stream().map(item -> item.getId()).toList();
+    }
+
+    private static LocalDateTime tomorrow() {
+        return LocalDateTime.now().plusDays(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.model.TodoStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class TodoItemCacheTest {
+
+    private final TodoItemCache cache = new TodoItemCache(new SimpleMeterRegistry(), 100, 60_000, false);
+
+    // An invalidation runs after commit while still holding its connection; waiting for a
+    // load that itself waits for a connection could exhaust the pool
+    @Test
+    void invalidationDoesNotWaitForALoadInProgress() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<TodoResponse> slowLoad = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return item(id, 1);
+        }));
+        loading.await();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> cache.onItemChanged(new TodoItemChangedEvent(TodoStatus.NOT_DONE, item(1L, 2))));
+        release.countDown();
+
+        // the load started before the write still answers its caller, but is not kept
+        assertThat(slowLoad.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(1);
+        assertThat(cache.get(1L, id -> item(id, 2)).getVersion()).isEqualTo(2);
+    }
+
+    // Other instances' writes would never invalidate an entry
+    @Test
+    void sharedDatabase_readsThrough() {
+        TodoItemCache shared = new TodoItemCache(new SimpleMeterRegistry(), 100, 60_000, true);
+        shared.get(1L, id -> item(id, 1));
+
+        assertThat(shared.get(1L, id -> item(id, 2)).getVersion()).isEqualTo(2);
+    }
+
+    private static TodoResponse item(Long id, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoResponse(id, "Cached", TodoStatus.NOT_DONE, now, now.plusDays(1), null, version);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Hammers a few items with concurrent status transitions and checks that every
+// successful transition is accounted for exactly once
+@SpringBootTest(properties = "todo.pastdue.timer.enabled=false")
+public class TodoItemContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 100;
+    private static final int ITEMS = 4;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    TodoPastDueScheduler scheduler;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void concurrentTransitions_loseNoUpdates() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ids.add(service.create("Contended " + i, LocalDateTime.now().plusDays(1)).getId());
+        }
+
+        Map<Long, Set<Long>> versionsById = new ConcurrentHashMap<>();
+        ids.forEach(id -> versionsById.put(id, ConcurrentHashMap.newKeySet()));
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Long id = ids.get(random.nextInt(ITEMS));
+                try {
+                    TodoItem item = random.nextBoolean() ? service.markDone(id) : service.markNotDone(id);
+                    // each successful transition must own a distinct version
+                    assertThat(versionsById.get(id).add(item.getVersion())).isTrue();
+                    successes.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(successes.get() + conflicts.get()).isEqualTo(THREADS * OPERATIONS_PER_THREAD);
+        assertThat(conflicts.get()).isLessThan(THREADS * OPERATIONS_PER_THREAD / 4);
+
+        // every success bumped the version once, and none was overwritten by another
+        for (Long id : ids) {
+            assertThat(repository.findById(id).orElseThrow().getVersion())
+                    .isEqualTo(versionsById.get(id).size());
+        }
+    }
+
+    @Test
+    void markDoneRacingTheSweep_endsDoneOrPastDueButNeverBoth() throws Exception {
+        List<TodoItem> overdue = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            overdue.add(TodoItem.builder()
+                    .description("Overdue " + i)
+                    .creationTime(LocalDateTime.now().minusHours(2))
+                    .dueTime(LocalDateTime.now().minusMinutes(1))
+                    .status(TodoStatus.NOT_DONE)
+                    .build());
+        }
+        List<Long> ids = repository.saveAll(overdue).stream().map(TodoItem::getId).toList();
+
+        Set<Long> markedDone = ConcurrentHashMap.newKeySet();
+        AtomicInteger sweptCount = new AtomicInteger();
+
+        runConcurrently(2, new Runnable() {
+            private final AtomicInteger started = new AtomicInteger();
+
+            @Override
+            public void run() {
+                if (started.getAndIncrement() == 0) {
+                    sweptCount.set(scheduler.markPastDueItems());
+                    return;
+                }
+                for (Long id : ids) {
+                    try {
+                        service.markDone(id);
+                        markedDone.add(id);
+                    } catch (IllegalStateException e) {
+                        // lost to the sweep
+                    }
+                }
+            }
+        });
+
+        for (Long id : ids) {
+            TodoStatus status = repository.findById(id).orElseThrow().getStatus();
+            assertThat(status).isEqualTo(markedDone.contains(id) ? TodoStatus.DONE : TodoStatus.PAST_DUE);
+        }
+        assertThat(markedDone.size() + sweptCount.get()).isEqualTo(ids.size());
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        assertThat(failures).isEmpty();
+    }
+}
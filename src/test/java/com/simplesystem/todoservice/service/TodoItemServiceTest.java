@@ -1,13 +1,17 @@
 package com.simplesystem.todoservice.service;
 
+import com.simplesystem.todoservice.dto.CreateTodoRequest;
+import com.simplesystem.todoservice.dto.TodoResponse;
 import com.simplesystem.todoservice.model.TodoItem;
 import com.simplesystem.todoservice.model.TodoStatus;
 import com.simplesystem.todoservice.repository.TodoItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -22,6 +26,12 @@ public class TodoItemServiceTest {
     @Autowired
     TodoItemRepository repository;
 
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    TodoChangeCounter changes;
+
     @BeforeEach
     void cleanDb() {
         repository.deleteAll();
@@ -91,7 +101,7 @@ public class TodoItemServiceTest {
         TodoItem b = service.create("B", LocalDateTime.now().plusMinutes(5));
         service.markDone(b.getId());
 
-        List<TodoItem> result = service.getAll(false);
+        List<TodoResponse> result = service.getAll(false);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getDescription()).isEqualTo("A");
@@ -103,11 +113,39 @@ public class TodoItemServiceTest {
         TodoItem b = service.create("B", LocalDateTime.now().plusMinutes(5));
         service.markDone(b.getId());
 
-        List<TodoItem> result = service.getAll(true);
+        List<TodoResponse> result = service.getAll(true);
 
         assertThat(result).hasSize(2);
     }
 
+    @Test
+    void export_streamsItemsInIdOrder() {
+        TodoItem a = service.create("A", LocalDateTime.now().plusMinutes(5));
+        TodoItem b = service.create("B", LocalDateTime.now().plusMinutes(5));
+        TodoItem c = service.create("C", LocalDateTime.now().plusMinutes(5));
+        service.markDone(b.getId());
+
+        List<TodoResponse> open = new ArrayList<>();
+        service.export(false, open::add);
+        List<TodoResponse> all = new ArrayList<>();
+        service.export(true, all::add);
+
+        assertThat(open).extracting(TodoResponse::getId).containsExactly(a.getId(), c.getId());
+        assertThat(all).extracting(TodoResponse::getId).containsExactly(a.getId(), b.getId(), c.getId());
+    }
+
+    @Test
+    void everyWrite_bumpsChangeCounter() {
+        String initial = changes.current();
+        TodoItem item = service.create("A", LocalDateTime.now().plusMinutes(5));
+        String afterCreate = changes.current();
+        service.update(item.getId(), "B", null);
+        String afterUpdate = changes.current();
+        service.markDone(item.getId());
+
+        assertThat(List.of(initial, afterCreate, afterUpdate, changes.current())).doesNotHaveDuplicates();
+    }
+
     @Test
     void create_rejectsBlankDescription() {
         assertThatThrownBy(() ->
@@ -219,4 +257,231 @@ public class TodoItemServiceTest {
         ).isInstanceOf(NoSuchElementException.class);
     }
 
+    @Test
+    void getPage_walksAllItemsInDueTimeOrder() {
+        LocalDateTime base = LocalDateTime.now().plusHours(1);
+        for (int i = 4; i >= 0; i--) {
+            service.create("Task " + i, base.plusMinutes(i));
+        }
+
+        TodoPage first = service.getPage(null, false, null, null, null, 2);
+        TodoPage second = service.getPage(null, false, null, null, first.next(), 2);
+        TodoPage third = service.getPage(null, false, null, null, second.next(), 2);
+
+        assertThat(first.items()).extracting(TodoResponse::getDescription).containsExactly("Task 0", "Task 1");
+        assertThat(second.items()).extracting(TodoResponse::getDescription).containsExactly("Task 2", "Task 3");
+        assertThat(third.items()).extracting(TodoResponse::getDescription).containsExactly("Task 4");
+        assertThat(third.next()).isNull();
+    }
+
+    @Test
+    void getPage_breaksDueTimeTiesById() {
+        LocalDateTime due = LocalDateTime.now().plusHours(1);
+        TodoItem a = service.create("A", due);
+        TodoItem b = service.create("B", due);
+        TodoItem c = service.create("C", due);
+
+        TodoPage first = service.getPage(null, false, null, null, null, 2);
+        TodoPage second = service.getPage(null, false, null, null, first.next(), 2);
+
+        assertThat(first.items()).extracting(TodoResponse::getId).containsExactly(a.getId(), b.getId());
+        assertThat(second.items()).extracting(TodoResponse::getId).containsExactly(c.getId());
+    }
+
+    @Test
+    void getPage_filtersByStatusAndDueWindow() {
+        LocalDateTime base = LocalDateTime.now().plusHours(1);
+        service.create("Early", base);
+        service.create("Inside", base.plusHours(2));
+        TodoItem done = service.create("Done inside", base.plusHours(2));
+        service.markDone(done.getId());
+
+        TodoPage notDone = service.getPage(null, false, base.plusHours(1), base.plusHours(3), null, null);
+        TodoPage onlyDone = service.getPage(List.of(TodoStatus.DONE), false, null, null, null, null);
+
+        assertThat(notDone.items()).extracting(TodoResponse::getDescription).containsExactly("Inside");
+        assertThat(onlyDone.items()).extracting(TodoResponse::getDescription).containsExactly("Done inside");
+    }
+
+    @Test
+    void getPage_rejectsInvalidCursorAndLimit() {
+        assertThatThrownBy(() -> service.getPage(null, false, null, null, "not a cursor", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cursor");
+
+        assertThatThrownBy(() -> service.getPage(null, false, null, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limit");
+    }
+
+    @Test
+    void getDue_returnsOpenItemsInWindowSoonestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        service.create("Later", now.plusHours(3));
+        service.create("Soon", now.plusMinutes(30));
+        service.create("Sooner", now.plusMinutes(10));
+        TodoItem done = service.create("Done", now.plusMinutes(20));
+        service.markDone(done.getId());
+
+        TodoPage due = service.getDue(null, null, now.plusHours(1), null, null);
+
+        assertThat(due.items()).extracting(TodoResponse::getDescription).containsExactly("Sooner", "Soon");
+        assertThat(due.next()).isNull();
+    }
+
+    @Test
+    void getDue_mergesStatusesAcrossPages() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            TodoItem item = service.create("Task " + i, now.plusMinutes(i));
+            if (i % 2 == 0) {
+                service.markDone(item.getId());
+            }
+        }
+
+        List<TodoStatus> both = List.of(TodoStatus.NOT_DONE, TodoStatus.DONE);
+        TodoPage first = service.getDue(both, now, now.plusHours(1), null, 2);
+        TodoPage second = service.getDue(both, now, now.plusHours(1), first.next(), 2);
+        TodoPage third = service.getDue(both, now, now.plusHours(1), second.next(), 2);
+
+        assertThat(first.items()).extracting(TodoResponse::getDescription).containsExactly("Task 1", "Task 2");
+        assertThat(second.items()).extracting(TodoResponse::getDescription).containsExactly("Task 3", "Task 4");
+        assertThat(third.items()).extracting(TodoResponse::getDescription).containsExactly("Task 5");
+        assertThat(third.next()).isNull();
+    }
+
+    @Test
+    void getDue_rejectsEmptyWindow() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThatThrownBy(() -> service.getDue(null, now, now.minusMinutes(1), null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dueTo");
+    }
+
+    @Test
+    void update_appliesDescriptionAndDueTimeTogether() {
+        TodoItem item = service.create("Original", LocalDateTime.now().plusMinutes(10));
+        LocalDateTime newDue = LocalDateTime.now().plusHours(2);
+
+        TodoItem updated = service.update(item.getId(), "Both", newDue);
+
+        assertThat(updated.getDescription()).isEqualTo("Both");
+        assertThat(updated.getDueTime()).isEqualTo(newDue);
+    }
+
+    @Test
+    void update_changesDescriptionOfDoneItem() {
+        TodoItem item = service.create("Original", LocalDateTime.now().plusMinutes(10));
+        service.markDone(item.getId());
+
+        TodoItem updated = service.update(item.getId(), "Renamed", null);
+
+        assertThat(updated.getDescription()).isEqualTo("Renamed");
+        assertThat(updated.getStatus()).isEqualTo(TodoStatus.DONE);
+    }
+
+    @Test
+    void update_rejectedDueTimeLeavesDescriptionUnchanged() {
+        TodoItem item = service.create("Original", LocalDateTime.now().plusMinutes(10));
+        service.markDone(item.getId());
+
+        assertThatThrownBy(() -> service.update(item.getId(), "Renamed", LocalDateTime.now().plusHours(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("NOT_DONE");
+        assertThat(repository.findById(item.getId()).orElseThrow().getDescription()).isEqualTo("Original");
+    }
+
+    @Test
+    void getResponseById_servesRepeatedReadsFromCache() {
+        TodoItem item = service.create("Cached", LocalDateTime.now().plusMinutes(10));
+        double misses = cacheGets("miss");
+        double hits = cacheGets("hit");
+
+        TodoResponse first = service.getResponseById(item.getId());
+        TodoResponse second = service.getResponseById(item.getId());
+
+        assertThat(second).isSameAs(first);
+        assertThat(cacheGets("miss") - misses).isEqualTo(1);
+        assertThat(cacheGets("hit") - hits).isEqualTo(1);
+    }
+
+    private double cacheGets(String result) {
+        return registry.get("cache.gets").tags("cache", "todo.items", "result", result).functionCounter().count();
+    }
+
+    @Test
+    void getResponseById_reflectsWritesAfterCaching() {
+        TodoItem item = service.create("Before", LocalDateTime.now().plusMinutes(10));
+        service.getResponseById(item.getId());
+
+        service.updateDescription(item.getId(), "After");
+        service.markDone(item.getId());
+
+        TodoResponse cached = service.getResponseById(item.getId());
+        assertThat(cached.getDescription()).isEqualTo("After");
+        assertThat(cached.getStatus()).isEqualTo(TodoStatus.DONE);
+    }
+
+    @Test
+    void getResponseById_throwsIfItemNotFound() {
+        assertThatThrownBy(() -> service.getResponseById(999_999L))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void createAll_persistsEveryItemInRequestOrder() {
+        List<CreateTodoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(createRequest("Batch " + i, LocalDateTime.now().plusHours(1)));
+        }
+
+        List<TodoItem> created = service.createAll(requests);
+
+        assertThat(created).hasSize(120);
+        assertThat(created).extracting(TodoItem::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(created.get(119).getDescription()).isEqualTo("Batch 119");
+        assertThat(repository.count()).isEqualTo(120);
+    }
+
+    @Test
+    void createAll_rejectsWholeBatchWhenAnyItemIsInvalid() {
+        List<CreateTodoRequest> requests = List.of(
+                createRequest("Valid", LocalDateTime.now().plusHours(1)),
+                createRequest("  ", LocalDateTime.now().plusHours(1)),
+                createRequest("Late", LocalDateTime.now().minusHours(1))
+        );
+
+        assertThatThrownBy(() -> service.createAll(requests))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Item 1: Description must not be empty")
+                .hasMessageContaining("Item 2: Due time must be in the future");
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void createAll_rejectsNullItem() {
+        List<CreateTodoRequest> requests = new ArrayList<>();
+        requests.add(createRequest("Valid", LocalDateTime.now().plusHours(1)));
+        requests.add(null);
+
+        assertThatThrownBy(() -> service.createAll(requests))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Item 1: must not be null");
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void createAll_rejectsEmptyBatch() {
+        assertThatThrownBy(() -> service.createAll(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CreateTodoRequest createRequest(String description, LocalDateTime dueTime) {
+        CreateTodoRequest request = new CreateTodoRequest();
+        request.setDescription(description);
+        request.setDueTime(dueTime);
+        return request;
+    }
+
 }
@@ -0,0 +1,151 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.dto.TodoResponse;
+import com.simplesystem.todoservice.dto.TodoSummaryResponse;
+import com.simplesystem.todoservice.event.TodoItemChangedEvent;
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.ArchivedTodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import com.simplesystem.todoservice.repository.TodoStatusCount;
+import com.simplesystem.todoservice.scheduler.TodoDueTimeTracker;
+import com.simplesystem.todoservice.scheduler.TodoPastDueScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class TodoStatusCountersTest {
+
+    @Autowired
+    TodoStatusCounters counters;
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @Autowired
+    TodoPastDueScheduler scheduler;
+
+    @Autowired
+    ArchivedTodoItemRepository archive;
+
+    @Autowired
+    TodoDueTimeTracker tracker;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+        counters.reconcile();
+    }
+
+    @Test
+    void transitions_moveCountsBetweenStatuses() {
+        TodoItem a = service.create("A", LocalDateTime.now().plusDays(1));
+        service.create("B", LocalDateTime.now().plusDays(1));
+        service.markDone(a.getId());
+
+        assertThat(counters.count(TodoStatus.NOT_DONE)).isEqualTo(1);
+        assertThat(counters.count(TodoStatus.DONE)).isEqualTo(1);
+
+        service.markNotDone(a.getId());
+        // updates without a status change leave the counts alone
+        service.updateDescription(a.getId(), "A2");
+
+        assertThat(counters.count(TodoStatus.NOT_DONE)).isEqualTo(2);
+        assertThat(counters.count(TodoStatus.DONE)).isZero();
+    }
+
+    @Test
+    void sweep_movesCountsToPastDue() {
+        repository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(10))
+                .status(TodoStatus.NOT_DONE)
+                .build());
+        counters.reconcile();
+
+        scheduler.markPastDueItems();
+
+        assertThat(counters.count(TodoStatus.NOT_DONE)).isZero();
+        assertThat(counters.count(TodoStatus.PAST_DUE)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_correctsWritesThatBypassedTheService() {
+        service.create("Counted", LocalDateTime.now().plusDays(1));
+        repository.save(TodoItem.builder()
+                .description("Not counted")
+                .creationTime(LocalDateTime.now())
+                .dueTime(LocalDateTime.now().plusDays(1))
+                .status(TodoStatus.DONE)
+                .build());
+
+        assertThat(counters.count(TodoStatus.DONE)).isZero();
+
+        counters.reconcile();
+
+        assertThat(counters.count(TodoStatus.NOT_DONE)).isEqualTo(1);
+        assertThat(counters.count(TodoStatus.DONE)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_keepsEventsAppliedAfterTheQuery() {
+        TodoItemRepository racing = mock(TodoItemRepository.class);
+        TodoStatusCounters local = new TodoStatusCounters(racing, mock(ArchivedTodoItemRepository.class),
+                mock(TodoDueTimeTracker.class), false);
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+        TodoResponse created = new TodoResponse(4L, "Created meanwhile", TodoStatus.NOT_DONE, due, due, null, 0);
+        // the query reads 3 items, then a fourth is committed and its event applied before the update
+        when(racing.countGroupedByStatus()).thenAnswer(invocation -> {
+            local.onItemChanged(new TodoItemChangedEvent(null, created));
+            return List.of(new TodoStatusCount(TodoStatus.NOT_DONE, 3));
+        });
+
+        local.reconcile();
+
+        assertThat(local.count(TodoStatus.NOT_DONE)).isEqualTo(4);
+    }
+
+    // Other instances' writes never reach the counters
+    @Test
+    void sharedDatabase_summaryCountsInTheDatabase() {
+        TodoStatusCounters shared = new TodoStatusCounters(repository, archive, tracker, true);
+        service.create("Counted by another instance", LocalDateTime.now().plusDays(1));
+
+        assertThat(shared.count(TodoStatus.NOT_DONE)).isZero();
+        assertThat(shared.summary().getCounts())
+                .containsEntry(TodoStatus.NOT_DONE, 1L)
+                .containsEntry(TodoStatus.DONE, 0L);
+    }
+
+    @Test
+    void summary_countsOpenItemsDueWithinTheHour() {
+        // the due-time heap is shared with earlier tests in this context
+        long dueSoonBefore = counters.summary().getDueInNextHour();
+
+        service.create("Soon", LocalDateTime.now().plusMinutes(30));
+        service.create("Later", LocalDateTime.now().plusHours(3));
+        TodoItem done = service.create("Soon but done", LocalDateTime.now().plusMinutes(30));
+        service.markDone(done.getId());
+
+        TodoSummaryResponse summary = counters.summary();
+
+        assertThat(summary.getCounts())
+                .containsEntry(TodoStatus.NOT_DONE, 2L)
+                .containsEntry(TodoStatus.DONE, 1L)
+                .containsEntry(TodoStatus.PAST_DUE, 0L);
+        assertThat(summary.getDueInNextHour() - dueSoonBefore).isEqualTo(1);
+    }
+}
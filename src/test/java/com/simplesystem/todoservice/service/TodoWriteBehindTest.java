@@ -0,0 +1,81 @@
+package com.simplesystem.todoservice.service;
+
+import com.simplesystem.todoservice.model.TodoItem;
+import com.simplesystem.todoservice.model.TodoStatus;
+import com.simplesystem.todoservice.repository.TodoItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The service's writes going through the group-commit writer against the real database
+@SpringBootTest(properties = {
+        "todo.pastdue.timer.enabled=false",
+        "todo.write-behind.enabled=true"
+})
+public class TodoWriteBehindTest {
+
+    @Autowired
+    TodoItemService service;
+
+    @Autowired
+    TodoItemRepository repository;
+
+    @BeforeEach
+    void cleanDb() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void concurrentWritesAreCommittedBeforeTheyReturn() throws Exception {
+        List<Future<TodoItem>> created = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                String description = "Queued " + i;
+                created.add(callers.submit(() -> {
+                    TodoItem item = service.create(description, LocalDateTime.now().plusDays(1));
+                    // visible to other transactions as soon as the call returns
+                    assertThat(repository.findById(item.getId())).isPresent();
+                    return service.markDone(item.getId());
+                }));
+            }
+            for (Future<TodoItem> item : created) {
+                assertThat(item.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(TodoStatus.DONE);
+            }
+        }
+
+        assertThat(repository.findAll())
+                .hasSize(100)
+                .allMatch(item -> item.getStatus() == TodoStatus.DONE && item.getCompletionTime() != null);
+    }
+
+    @Test
+    void rejectedWritesFailWithTheUsualExceptions() {
+        TodoItem overdue = repository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationTime(LocalDateTime.now().minusHours(2))
+                .dueTime(LocalDateTime.now().minusMinutes(1))
+                .status(TodoStatus.PAST_DUE)
+                .build());
+
+        assertThatThrownBy(() -> service.markDone(Long.MAX_VALUE))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> service.updateDescription(overdue.getId(), "Renamed"))
+                .isInstanceOf(IllegalStateException.class);
+
+        TodoItem item = service.create("Still works", LocalDateTime.now().plusDays(1));
+        assertThat(service.updateDescription(item.getId(), "Renamed").getDescription()).isEqualTo("Renamed");
+    }
+}
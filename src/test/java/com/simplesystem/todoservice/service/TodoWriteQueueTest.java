@@ -0,0 +1,192 @@
+package com.simplesystem.todoservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The queue on its own, with a transaction manager that only counts commits
+class TodoWriteQueueTest {
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private TodoWriteQueue writes;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        callers.shutdownNow();
+        if (writes != null) {
+            writes.stop();
+        }
+    }
+
+    @Test
+    void disabledRunsEveryWriteInItsOwnTransaction() {
+        writes = queue(false, 10, 10);
+
+        assertThat(writes.execute(() -> "a")).isEqualTo("a");
+        assertThat(writes.execute(() -> "b")).isEqualTo("b");
+        assertThat(commits.get()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentWritesShareCommits() throws Exception {
+        writes = queue(true, 1000, 50);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            results.add(callers.submit(() -> writes.execute(() -> value)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+
+        assertThat(commits.get()).isLessThan(200);
+        assertThat(registry.get("todo.writes.batch").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    void failedWriteFailsOnlyItsCaller() throws Exception {
+        writes = queue(true, 10, 10);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // hold the writer so the next two writes land in one batch
+        Future<String> blocker = callers.submit(() -> writes.execute(() -> {
+            writerBusy.countDown();
+            await(release);
+            return "blocker";
+        }));
+        writerBusy.await();
+        Future<String> failing = callers.submit(() -> writes.<String>execute(() -> {
+            throw new NoSuchElementException("Todo item not found: 42");
+        }));
+        Future<String> fine = callers.submit(() -> writes.execute(() -> "fine"));
+        while (registry.get("todo.writes.queued").gauge().value() < 2) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(blocker.get(10, TimeUnit.SECONDS)).isEqualTo("blocker");
+        assertThat(fine.get(10, TimeUnit.SECONDS)).isEqualTo("fine");
+        assertThatThrownBy(() -> failing.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(NoSuchElementException.class);
+        assertThat(commits.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fullQueueRejectsRightAway() throws Exception {
+        writes = queue(true, 1, 1);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        callers.submit(() -> writes.execute(() -> {
+            writerBusy.countDown();
+            await(release);
+            return null;
+        }));
+        writerBusy.await();
+        Future<String> queued = callers.submit(() -> writes.execute(() -> "queued"));
+        while (registry.get("todo.writes.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> writes.execute(() -> "rejected"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("todo.writes.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void writerSurvivesAnErrorInABatch() throws Exception {
+        writes = queue(true, 10, 10);
+
+        assertThatThrownBy(() -> writes.execute(() -> {
+            throw new StackOverflowError("deep");
+        })).isInstanceOf(StackOverflowError.class);
+
+        assertThat(writes.execute(() -> "after")).isEqualTo("after");
+    }
+
+    @Test
+    void callerStopsWaitingAtTheTimeout() throws Exception {
+        writes = queue(true, 10, 1, 200);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> inFlight = callers.submit(() -> writes.execute(() -> {
+            writerBusy.countDown();
+            await(release);
+            return "late";
+        }));
+        writerBusy.await();
+
+        // never started: taken back out of the queue, safe to retry
+        assertThatThrownBy(() -> writes.execute(() -> "queued"))
+                .isInstanceOf(RejectedExecutionException.class);
+        // being committed: the outcome is not known yet
+        assertThatThrownBy(() -> inFlight.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TransactionTimedOutException.class);
+
+        release.countDown();
+        assertThat(writes.execute(() -> "next")).isEqualTo("next");
+        assertThat(commits.get()).isEqualTo(2);
+    }
+
+    private TodoWriteQueue queue(boolean enabled, int capacity, int maxBatch) {
+        return queue(enabled, capacity, maxBatch, 10_000);
+    }
+
+    private TodoWriteQueue queue(boolean enabled, int capacity, int maxBatch, long timeoutMs) {
+        return new TodoWriteQueue(new TransactionTemplate(new CountingTransactionManager()), registry,
+                enabled, capacity, maxBatch, 5, timeoutMs);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class CountingTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}